@@ -0,0 +1,14 @@
+#!/usr/bin/env sh
+# Build user-service and the JMH benchmarks, then run them with the GC profiler.
+# Results go to results/jmh-<timestamp>.json (diff two files to compare releases).
+# Extra arguments are passed to JMH, e.g. ./run-benchmarks.sh TokenBenchmark -f 1
+set -e
+cd "$(dirname "$0")"
+
+../user-service/mvnw -B -q -f ../user-service/pom.xml install -DskipTests
+../user-service/mvnw -B -q package
+
+mkdir -p results
+RESULT="results/jmh-$(date +%Y%m%d-%H%M%S).json"
+java -jar target/benchmarks.jar -prof gc -rf json -rff "$RESULT" "$@"
+echo "JMH results written to $RESULT"
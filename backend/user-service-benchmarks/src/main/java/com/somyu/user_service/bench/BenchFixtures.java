@@ -0,0 +1,88 @@
+package com.somyu.user_service.bench;
+
+import com.somyu.user_service.config.JwtProperties;
+import com.somyu.user_service.config.ReplicaProperties;
+import com.somyu.user_service.datasource.ReadYourWrites;
+import com.somyu.user_service.repository.UserRepository;
+import com.somyu.user_service.security.AuthenticatedUser;
+import com.somyu.user_service.security.JwtProvider;
+import com.somyu.user_service.security.SigningKeyRing;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Plain-Java wiring of the production classes, without a Spring context or database.
+ */
+final class BenchFixtures {
+
+    static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret";
+    static final UUID USER_ID = UUID.fromString("0190d6a4-6b7e-7c2a-9f00-3c1d2e4f5a6b");
+    static final String EMAIL = "bench.user@example.com";
+    static final Set<String> ROLES = Set.of("ROLE_USER");
+
+    private BenchFixtures() {
+    }
+
+    static JwtProperties jwtProperties(int verifiedCacheSize, boolean claimsOnly) {
+        return jwtProperties(verifiedCacheSize, claimsOnly, "HS256");
+    }
+
+    static JwtProperties jwtProperties(int verifiedCacheSize, boolean claimsOnly, String algorithm) {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret(SECRET);
+        // RS256 without a key directory signs with an in-memory key pair
+        properties.setAlgorithm(algorithm);
+        properties.setExpirationMs(3_600_000L);
+        properties.setVerifiedCacheSize(verifiedCacheSize);
+        properties.setClaimsOnly(claimsOnly);
+        properties.setSecurityVersionCacheSize(1024);
+        properties.setSecurityVersionCacheTtlMs(60_000L);
+        return properties;
+    }
+
+    static JwtProvider jwtProvider(JwtProperties properties, MeterRegistry meterRegistry) {
+        return new JwtProvider(properties, new SigningKeyRing(properties), meterRegistry);
+    }
+
+    /**
+     * Replicas off: every read runs as is.
+     */
+    static ReadYourWrites readYourWrites() {
+        ReplicaProperties properties = new ReplicaProperties();
+        properties.setReadYourWritesMaxEntries(10_000);
+        return new ReadYourWrites(properties);
+    }
+
+    static AuthenticatedUser user(String encodedPassword) {
+        return new AuthenticatedUser(USER_ID, EMAIL, encodedPassword, true,
+                Set.of(new SimpleGrantedAuthority("ROLE_USER")), 0);
+    }
+
+    /**
+     * UserRepository that only answers the security-version lookup used in claims-only mode.
+     */
+    static UserRepository userRepository() {
+        return (UserRepository) Proxy.newProxyInstance(
+                UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "findSecurityVersionByEmail":
+                            return Optional.of(0);
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return "BenchUserRepository";
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
@@ -0,0 +1,73 @@
+package com.somyu.user_service.bench;
+
+import com.somyu.user_service.config.JwtProperties;
+import com.somyu.user_service.config.RevocationProperties;
+import com.somyu.user_service.security.AuthenticatedUser;
+import com.somyu.user_service.security.JwtAuthenticationFilter;
+import com.somyu.user_service.security.JwtProvider;
+import com.somyu.user_service.security.SecurityVersionRegistry;
+import com.somyu.user_service.security.TokenDenylist;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One full JwtAuthenticationFilter pass with mock servlet objects. The user lookup is an
+ * in-memory stub, so this measures token handling and principal construction only.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FilterBenchmark {
+
+    @Param({"false", "true"})
+    public boolean claimsOnly;
+
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        JwtProperties properties = BenchFixtures.jwtProperties(10_000, claimsOnly);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        JwtProvider jwtProvider = BenchFixtures.jwtProvider(properties, meterRegistry);
+
+        AuthenticatedUser user = BenchFixtures.user("{bcrypt}unused");
+        UserDetailsService userDetailsService = username -> user.copy();
+        SecurityVersionRegistry registry = new SecurityVersionRegistry(BenchFixtures.userRepository(),
+                BenchFixtures.readYourWrites(), properties);
+
+        RevocationProperties revocationProperties = new RevocationProperties();
+        revocationProperties.setMaxEntries(100_000);
+        TokenDenylist denylist = new TokenDenylist(revocationProperties, meterRegistry);
+
+        // no database behind the fixtures, so nothing for the exception resolver to render
+        filter = new JwtAuthenticationFilter(jwtProvider, userDetailsService, registry, denylist, properties,
+                meterRegistry, (request, response, handler, ex) -> null);
+        authorization = "Bearer " + jwtProvider.generateToken(user, BenchFixtures.ROLES);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse filterPass() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/user/me");
+        request.addHeader("Authorization", authorization);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, new MockFilterChain());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return response;
+    }
+}
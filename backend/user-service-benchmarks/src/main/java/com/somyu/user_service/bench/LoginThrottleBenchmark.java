@@ -0,0 +1,45 @@
+package com.somyu.user_service.bench;
+
+import com.somyu.user_service.security.TokenBucketTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one login throttle check: every thread hammering the same account (worst-case CAS
+ * contention on one slot) versus attempts spread over many accounts.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class LoginThrottleBenchmark {
+
+    private static final int KEYS = 100_000;
+
+    private TokenBucketTable table;
+    private String[] keys;
+
+    @Setup
+    public void setUp() {
+        table = new TokenBucketTable(65536, 10, 5);
+        keys = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = "user-" + i + "@example.com";
+        }
+    }
+
+    @Benchmark
+    public long hotKey() {
+        return table.tryAcquire("victim@example.com", System.currentTimeMillis());
+    }
+
+    @Benchmark
+    public long randomKeys() {
+        return table.tryAcquire(keys[ThreadLocalRandom.current().nextInt(KEYS)], System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,78 @@
+package com.somyu.user_service.bench;
+
+import com.somyu.user_service.security.AuthenticatedUser;
+import com.somyu.user_service.security.JwtProvider;
+import com.somyu.user_service.security.VerifiedToken;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token minting and verification. {@code verifyCold} cycles through more distinct tokens
+ * than the verified-token cache holds, so every call pays for parse + HMAC;
+ * {@code verifyCached} measures the repeated-bearer-token case.
+ * Runs for both HS256 and RS256 signing.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenBenchmark {
+
+    private static final int DISTINCT_TOKENS = 4096;
+
+    @Param({"HS256", "RS256"})
+    public String algorithm;
+
+    private JwtProvider cachingProvider;
+    private JwtProvider coldProvider;
+    private AuthenticatedUser user;
+    private String token;
+    private String[] tokens;
+
+    @Setup
+    public void setUp() {
+        cachingProvider = BenchFixtures.jwtProvider(BenchFixtures.jwtProperties(10_000, false, algorithm),
+                new SimpleMeterRegistry());
+        // minimum cache size: 16 segments of one entry, far below DISTINCT_TOKENS
+        coldProvider = BenchFixtures.jwtProvider(BenchFixtures.jwtProperties(1, false, algorithm),
+                new SimpleMeterRegistry());
+        user = BenchFixtures.user("");
+
+        token = cachingProvider.generateToken(user, BenchFixtures.ROLES);
+        tokens = new String[DISTINCT_TOKENS];
+        for (int i = 0; i < DISTINCT_TOKENS; i++) {
+            AuthenticatedUser distinct = new AuthenticatedUser(BenchFixtures.USER_ID, "user" + i + "@example.com",
+                    "", true, user.getAuthorities(), 0);
+            tokens[i] = coldProvider.generateToken(distinct, BenchFixtures.ROLES);
+        }
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachingProvider.generateToken(user, BenchFixtures.ROLES);
+    }
+
+    @Benchmark
+    public VerifiedToken verifyCached() {
+        return cachingProvider.verify(token).orElseThrow();
+    }
+
+    @Benchmark
+    public VerifiedToken verifyCold(ColdCursor cursor) {
+        return coldProvider.verify(tokens[cursor.next()]).orElseThrow();
+    }
+
+    @State(Scope.Thread)
+    public static class ColdCursor {
+        private int i;
+
+        int next() {
+            i = (i + 1) & (DISTINCT_TOKENS - 1);
+            return i;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.somyu.user_service.bench;
+
+import com.somyu.user_service.dto.UserResponse;
+import com.somyu.user_service.entity.Role;
+import com.somyu.user_service.entity.User;
+import com.somyu.user_service.service.UserMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to UserResponse mapping.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserMappingBenchmark {
+
+    private User user;
+
+    @Setup
+    public void setUp() {
+        user = User.builder()
+                .id(BenchFixtures.USER_ID)
+                .fullName("Bench User")
+                .email(BenchFixtures.EMAIL)
+                .password("{bcrypt}unused")
+                .roles(EnumSet.of(Role.ROLE_USER, Role.ROLE_ADMIN))
+                .enabled(true)
+                .createdAt(Instant.now())
+                .updatedAt(Instant.now())
+                .build();
+    }
+
+    @Benchmark
+    public UserResponse toUserResponse() {
+        return UserMapper.toUserResponse(user);
+    }
+}
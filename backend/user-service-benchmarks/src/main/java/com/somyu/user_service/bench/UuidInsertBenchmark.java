@@ -0,0 +1,113 @@
+package com.somyu.user_service.bench;
+
+import com.somyu.user_service.id.IdGenerator;
+import com.somyu.user_service.id.RandomUuidGenerator;
+import com.somyu.user_service.id.UuidV7Generator;
+
+import java.sql.*;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Compares insert throughput and index size of random (v4) and time-ordered (v7) user ids
+ * on PostgreSQL, using tables shaped like {@code users} and {@code user_roles}.
+ * <p>
+ * Usage (needs a scratch database; the bench_* tables are dropped and recreated):
+ * <pre>
+ * mvn -f ../user-service install -DskipTests
+ * mvn compile exec:java -Dbench.url=jdbc:postgresql://localhost:9090/benchdb \
+ *     -Dbench.user=postgres -Dbench.password=1234 -Dbench.rows=5000000
+ * </pre>
+ */
+public class UuidInsertBenchmark {
+
+    private static final int BATCH = Integer.getInteger("bench.batch", 1000);
+    private static final int REPORT_SLICES = 10;
+
+    public static void main(String[] args) throws SQLException {
+        String url = System.getProperty("bench.url", "jdbc:postgresql://localhost:9090/benchdb");
+        String user = System.getProperty("bench.user", "postgres");
+        String password = System.getProperty("bench.password", "1234");
+        long rows = Long.getLong("bench.rows", 2_000_000L);
+
+        Map<String, IdGenerator> generators = new LinkedHashMap<>();
+        generators.put("v4", new RandomUuidGenerator());
+        generators.put("v7", new UuidV7Generator());
+
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            for (Map.Entry<String, IdGenerator> entry : generators.entrySet()) {
+                run(connection, entry.getKey(), entry.getValue(), rows);
+            }
+        }
+    }
+
+    private static void run(Connection connection, String name, IdGenerator generator, long rows) throws SQLException {
+        String users = "bench_users_" + name;
+        String roles = "bench_user_roles_" + name;
+        recreateTables(connection, users, roles);
+
+        connection.setAutoCommit(false);
+        System.out.printf("%n== %s: inserting %,d users (batch %d)%n", name, rows, BATCH);
+
+        long slice = Math.max(1, rows / REPORT_SLICES);
+        long start = System.nanoTime();
+        long sliceStart = start;
+
+        try (PreparedStatement insertUser = connection.prepareStatement(
+                "INSERT INTO " + users + " (id, email, created_at) VALUES (?, ?, now())");
+             PreparedStatement insertRole = connection.prepareStatement(
+                     "INSERT INTO " + roles + " (user_id, role) VALUES (?, 'ROLE_USER')")) {
+
+            for (long i = 1; i <= rows; i++) {
+                UUID id = generator.nextId();
+                insertUser.setObject(1, id);
+                insertUser.setString(2, "user" + i + "@bench.local");
+                insertUser.addBatch();
+                insertRole.setObject(1, id);
+                insertRole.addBatch();
+
+                if (i % BATCH == 0 || i == rows) {
+                    insertUser.executeBatch();
+                    insertRole.executeBatch();
+                    connection.commit();
+                }
+                if (i % slice == 0) {
+                    long now = System.nanoTime();
+                    System.out.printf("  %,12d rows  %,10.0f rows/s (last slice)%n",
+                            i, slice / ((now - sliceStart) / 1e9));
+                    sliceStart = now;
+                }
+            }
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        connection.setAutoCommit(true);
+        System.out.printf("  total %.1f s, %,.0f rows/s%n", seconds, rows / seconds);
+        System.out.printf("  %s_pkey           %s%n", users, relationSize(connection, users + "_pkey"));
+        System.out.printf("  %s_user_id_idx %s%n", roles, relationSize(connection, roles + "_user_id_idx"));
+        System.out.printf("  %s (heap)         %s%n", users, relationSize(connection, users));
+    }
+
+    private static void recreateTables(Connection connection, String users, String roles) throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS " + roles);
+            st.execute("DROP TABLE IF EXISTS " + users);
+            st.execute("CREATE TABLE " + users + " (id uuid PRIMARY KEY, email varchar(255) NOT NULL, "
+                    + "created_at timestamptz NOT NULL)");
+            st.execute("CREATE TABLE " + roles + " (user_id uuid NOT NULL REFERENCES " + users + "(id), "
+                    + "role varchar(255))");
+            st.execute("CREATE INDEX " + roles + "_user_id_idx ON " + roles + " (user_id)");
+        }
+    }
+
+    private static String relationSize(Connection connection, String relation) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT pg_size_pretty(pg_relation_size(?::regclass))")) {
+            ps.setString(1, relation);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getString(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+#!/usr/bin/env bash
+# Runs the same I/O-heavy load twice, first on Tomcat's platform thread pool and then on
+# virtual threads, and prints both reports one after the other. Needs a JDK 21.
+# Extra arguments are passed on to both runs, e.g. -Dloadtest.clients=1000
+set -euo pipefail
+cd "$(dirname "$0")"
+
+(cd ../user-service && mvn -B -q -Pjava21 install -DskipTests)
+
+# every request blocks on a 20 ms "remote" checkout, and cached principals and profiles expire immediately
+IO_HEAVY=(
+  -Dloadtest.db-latency-ms=20
+  -Dloadtest.clients=800
+  -Dloadtest.mix.register=0 -Dloadtest.mix.login=0 -Dloadtest.mix.read=100
+  -Dauth.user-cache.ttl-ms=1
+  -Duser.profile-cache.ttl-ms=1
+  -Dspring.datasource.hikari.maximum-pool-size=50
+  -Dserver.tomcat.threads.max=200
+  -Dloadtest.slo.read.p99-ms=0
+)
+
+for mode in platform virtual; do
+  virtual=false
+  [ "$mode" = virtual ] && virtual=true
+  mvn -B -q -Pjava21 test "${IO_HEAVY[@]}" \
+    -Dspring.threads.virtual.enabled="$virtual" \
+    -Dloadtest.report-dir="target/loadtest-$mode" "$@" || true
+done
+
+for mode in platform virtual; do
+  echo "===== $mode threads"
+  cat "target/loadtest-$mode/report.txt"
+done
@@ -0,0 +1,16 @@
+package com.somyu.user_service.loadtest;
+
+/**
+ * Operations in the traffic mix and the status each one must return to count as a success.
+ */
+enum Endpoint {
+    REGISTER(201),
+    LOGIN(200),
+    READ(200);
+
+    final int expectedStatus;
+
+    Endpoint(int expectedStatus) {
+        this.expectedStatus = expectedStatus;
+    }
+}
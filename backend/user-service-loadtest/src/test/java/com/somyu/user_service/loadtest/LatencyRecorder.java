@@ -0,0 +1,101 @@
+package com.somyu.user_service.loadtest;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-client latency samples. Each client thread owns one recorder, so recording is a
+ * plain array write; recorders are merged once the run is over.
+ */
+final class LatencyRecorder {
+
+    private final Map<Endpoint, Samples> samples = new EnumMap<>(Endpoint.class);
+
+    LatencyRecorder() {
+        for (Endpoint endpoint : Endpoint.values()) {
+            samples.put(endpoint, new Samples());
+        }
+    }
+
+    void record(Endpoint endpoint, long nanos, boolean ok) {
+        Samples s = samples.get(endpoint);
+        if (s.count == s.nanos.length) {
+            s.nanos = Arrays.copyOf(s.nanos, s.nanos.length * 2);
+        }
+        s.nanos[s.count++] = nanos;
+        if (!ok) {
+            s.errors++;
+        }
+    }
+
+    /**
+     * Merge the samples of all clients into sorted per-endpoint statistics.
+     */
+    static Map<Endpoint, EndpointStats> merge(List<LatencyRecorder> recorders) {
+        Map<Endpoint, EndpointStats> merged = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            int total = 0;
+            long errors = 0;
+            for (LatencyRecorder recorder : recorders) {
+                total += recorder.samples.get(endpoint).count;
+                errors += recorder.samples.get(endpoint).errors;
+            }
+            long[] all = new long[total];
+            int offset = 0;
+            for (LatencyRecorder recorder : recorders) {
+                Samples s = recorder.samples.get(endpoint);
+                System.arraycopy(s.nanos, 0, all, offset, s.count);
+                offset += s.count;
+            }
+            Arrays.sort(all);
+            merged.put(endpoint, new EndpointStats(endpoint, all, errors));
+        }
+        return merged;
+    }
+
+    private static final class Samples {
+        long[] nanos = new long[1024];
+        int count;
+        long errors;
+    }
+
+    /**
+     * Sorted latencies and error count of one endpoint.
+     */
+    static final class EndpointStats {
+        final Endpoint endpoint;
+        final long[] sortedNanos;
+        final long errors;
+
+        EndpointStats(Endpoint endpoint, long[] sortedNanos, long errors) {
+            this.endpoint = endpoint;
+            this.sortedNanos = sortedNanos;
+            this.errors = errors;
+        }
+
+        long count() {
+            return sortedNanos.length;
+        }
+
+        double errorRate() {
+            return sortedNanos.length == 0 ? 0.0 : (double) errors / sortedNanos.length;
+        }
+
+        /**
+         * Nearest-rank percentile in milliseconds (q in 0..1).
+         */
+        double percentileMs(double q) {
+            if (sortedNanos.length == 0) {
+                return 0.0;
+            }
+            int rank = (int) Math.ceil(q * sortedNanos.length);
+            return sortedNanos[Math.max(0, Math.min(rank, sortedNanos.length) - 1)] / 1_000_000.0;
+        }
+
+        double maxMs() {
+            return sortedNanos.length == 0 ? 0.0 : sortedNanos[sortedNanos.length - 1] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.somyu.user_service.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load generator: every client thread sends its next request as soon as the
+ * previous one completes, choosing the operation by the configured weights. Requests sent
+ * during warm-up are not recorded.
+ */
+final class LoadDriver {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final LoadTestSettings settings;
+    private final String baseUrl;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Endpoint[] weightedOps;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong registrations = new AtomicLong();
+
+    LoadDriver(LoadTestSettings settings, String baseUrl) {
+        this.settings = settings;
+        this.baseUrl = baseUrl;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(REQUEST_TIMEOUT)
+                .build();
+        this.weightedOps = expandMix(settings);
+    }
+
+    /**
+     * Run warm-up and measurement and return one recorder per client.
+     */
+    Result run() throws InterruptedException {
+        ExecutorService clients = Executors.newFixedThreadPool(settings.clients);
+        List<LatencyRecorder> recorders = new ArrayList<>(settings.clients);
+        List<Future<?>> futures = new ArrayList<>(settings.clients);
+
+        long measureFrom = System.nanoTime() + settings.warmup.toNanos();
+        long measureUntil = measureFrom + settings.duration.toNanos();
+        for (int i = 0; i < settings.clients; i++) {
+            LatencyRecorder recorder = new LatencyRecorder();
+            recorders.add(recorder);
+            int clientId = i;
+            futures.add(clients.submit(() -> {
+                runClient(clientId, recorder, measureFrom, measureUntil);
+                return null;
+            }));
+        }
+
+        clients.shutdown();
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException ex) {
+            clients.shutdownNow();
+            throw new IllegalStateException("Load client failed", ex.getCause());
+        }
+        return new Result(recorders, settings.duration);
+    }
+
+    private void runClient(int clientId, LatencyRecorder recorder, long measureFrom, long measureUntil)
+            throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String email = UserSeeder.email(clientId);
+        String token = loginForToken(email);
+
+        long now;
+        while ((now = System.nanoTime()) < measureUntil) {
+            Endpoint op = weightedOps[random.nextInt(weightedOps.length)];
+            HttpRequest request = switch (op) {
+                case REGISTER -> registerRequest(clientId);
+                case LOGIN -> loginRequest(UserSeeder.email(random.nextInt(settings.seedUsers)));
+                case READ -> readRequest(email, token);
+            };
+
+            long start = System.nanoTime();
+            int status;
+            try {
+                status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (IOException ex) {
+                status = -1;
+            }
+            long elapsed = System.nanoTime() - start;
+            if (now >= measureFrom) {
+                recorder.record(op, elapsed, status == op.expectedStatus);
+            }
+        }
+    }
+
+    private String loginForToken(String email) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(loginRequest(email), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Initial login for " + email + " failed: " + response.statusCode());
+        }
+        JsonNode body = objectMapper.readTree(response.body());
+        return body.get("accessToken").asText();
+    }
+
+    private HttpRequest registerRequest(int clientId) {
+        String email = "reg-" + runId + "-" + clientId + "-" + registrations.incrementAndGet() + "@loadtest.local";
+        return json("/api/user/register",
+                "{\"fullName\":\"Load Test\",\"email\":\"" + email + "\",\"password\":\"" + UserSeeder.PASSWORD + "\"}");
+    }
+
+    private HttpRequest loginRequest(String email) {
+        return json("/api/auth/login",
+                "{\"email\":\"" + email + "\",\"password\":\"" + UserSeeder.PASSWORD + "\"}");
+    }
+
+    private HttpRequest readRequest(String email, String token) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + settings.readPath.replace("{email}", email)))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    private HttpRequest json(String path, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    /**
+     * One slot per weight unit, so picking an operation is a single random index.
+     */
+    private static Endpoint[] expandMix(LoadTestSettings settings) {
+        List<Endpoint> ops = new ArrayList<>();
+        settings.mix.forEach((endpoint, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                ops.add(endpoint);
+            }
+        });
+        return ops.toArray(new Endpoint[0]);
+    }
+
+    static final class Result {
+        final List<LatencyRecorder> recorders;
+        final Duration measured;
+
+        Result(List<LatencyRecorder> recorders, Duration measured) {
+            this.recorders = recorders;
+            this.measured = measured;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.somyu.user_service.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.somyu.user_service.loadtest.LatencyRecorder.EndpointStats;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Throughput, latency percentiles and errors per endpoint, plus the SLO verdict.
+ */
+final class LoadReport {
+
+    private final LoadTestSettings settings;
+    private final Map<Endpoint, EndpointStats> stats;
+    private final double seconds;
+
+    LoadReport(LoadTestSettings settings, LoadDriver.Result result) {
+        this.settings = settings;
+        this.stats = LatencyRecorder.merge(result.recorders);
+        this.seconds = result.measured.toMillis() / 1000.0;
+    }
+
+    long totalRequests() {
+        return stats.values().stream().mapToLong(EndpointStats::count).sum();
+    }
+
+    long totalErrors() {
+        return stats.values().stream().mapToLong(s -> s.errors).sum();
+    }
+
+    double throughput() {
+        return totalRequests() / seconds;
+    }
+
+    /**
+     * Every SLO the run crossed; empty when the run passes.
+     */
+    List<String> violations() {
+        List<String> violations = new ArrayList<>();
+        for (EndpointStats s : stats.values()) {
+            long limit = settings.p99LimitMs.get(s.endpoint);
+            if (limit > 0 && s.count() > 0 && s.percentileMs(0.99) > limit) {
+                violations.add(String.format(Locale.ROOT, "%s p99 %.1f ms > %d ms",
+                        s.endpoint, s.percentileMs(0.99), limit));
+            }
+            if (settings.maxErrorRate > 0 && s.errorRate() > settings.maxErrorRate) {
+                violations.add(String.format(Locale.ROOT, "%s error rate %.4f > %.4f",
+                        s.endpoint, s.errorRate(), settings.maxErrorRate));
+            }
+        }
+        if (settings.minThroughput > 0 && throughput() < settings.minThroughput) {
+            violations.add(String.format(Locale.ROOT, "throughput %.1f req/s < %.1f req/s",
+                    throughput(), settings.minThroughput));
+        }
+        return violations;
+    }
+
+    String toText() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%nLoad test: %d clients, %d seeded users, %.0f s measured%n",
+                settings.clients, settings.seedUsers, seconds));
+        sb.append(String.format(Locale.ROOT, "%-9s %9s %9s %8s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "req/s", "errors", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        for (EndpointStats s : stats.values()) {
+            sb.append(String.format(Locale.ROOT, "%-9s %9d %9.1f %8d %9.2f %9.2f %9.2f %9.2f%n",
+                    s.endpoint.name().toLowerCase(Locale.ROOT), s.count(), s.count() / seconds, s.errors,
+                    s.percentileMs(0.50), s.percentileMs(0.95), s.percentileMs(0.99), s.maxMs()));
+        }
+        sb.append(String.format(Locale.ROOT, "%-9s %9d %9.1f %8d%n", "total", totalRequests(), throughput(),
+                totalErrors()));
+
+        List<String> violations = violations();
+        sb.append(violations.isEmpty() ? "SLOs: PASS" : "SLOs: FAIL").append(System.lineSeparator());
+        violations.forEach(v -> sb.append("  - ").append(v).append(System.lineSeparator()));
+        return sb.toString();
+    }
+
+    /**
+     * Write report.txt and report.json to the configured report directory.
+     */
+    void write(ObjectMapper objectMapper) throws IOException {
+        Files.createDirectories(settings.reportDir);
+        Files.writeString(settings.reportDir.resolve("report.txt"), toText());
+
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("clients", settings.clients);
+        root.put("seedUsers", settings.seedUsers);
+        root.put("durationSeconds", seconds);
+        root.put("throughput", throughput());
+        ArrayNode endpoints = root.putArray("endpoints");
+        for (EndpointStats s : stats.values()) {
+            endpoints.addObject()
+                    .put("endpoint", s.endpoint.name().toLowerCase(Locale.ROOT))
+                    .put("requests", s.count())
+                    .put("errors", s.errors)
+                    .put("p50Ms", s.percentileMs(0.50))
+                    .put("p95Ms", s.percentileMs(0.95))
+                    .put("p99Ms", s.percentileMs(0.99))
+                    .put("maxMs", s.maxMs());
+        }
+        ArrayNode violations = root.putArray("violations");
+        violations().forEach(violations::add);
+        objectMapper.writerWithDefaultPrettyPrinter()
+                .writeValue(settings.reportDir.resolve("report.json").toFile(), root);
+    }
+}
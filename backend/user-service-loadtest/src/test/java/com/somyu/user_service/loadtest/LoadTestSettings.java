@@ -0,0 +1,55 @@
+package com.somyu.user_service.loadtest;
+
+import org.springframework.core.env.Environment;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Load profile and SLO thresholds, read from the {@code loadtest.*} properties
+ * (application-loadtest.properties, overridable with -D on the Maven command line).
+ */
+final class LoadTestSettings {
+
+    final int seedUsers;
+    final int clients;
+    final Duration warmup;
+    final Duration duration;
+    final Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+    final String readPath;
+
+    final Map<Endpoint, Long> p99LimitMs = new EnumMap<>(Endpoint.class);
+    final double maxErrorRate;
+    final double minThroughput;
+
+    final Path reportDir;
+
+    private LoadTestSettings(Environment env) {
+        this.seedUsers = env.getProperty("loadtest.seed-users", Integer.class, 2000);
+        this.clients = env.getProperty("loadtest.clients", Integer.class, 32);
+        this.warmup = Duration.ofSeconds(env.getProperty("loadtest.warmup-seconds", Long.class, 10L));
+        this.duration = Duration.ofSeconds(env.getProperty("loadtest.duration-seconds", Long.class, 60L));
+        this.readPath = env.getProperty("loadtest.read-path", "/api/user/me");
+        for (Endpoint endpoint : Endpoint.values()) {
+            String key = endpoint.name().toLowerCase();
+            mix.put(endpoint, env.getProperty("loadtest.mix." + key, Integer.class, 0));
+            p99LimitMs.put(endpoint, env.getProperty("loadtest.slo." + key + ".p99-ms", Long.class, 0L));
+        }
+        this.maxErrorRate = env.getProperty("loadtest.slo.max-error-rate", Double.class, 0.01);
+        this.minThroughput = env.getProperty("loadtest.slo.min-throughput", Double.class, 0.0);
+        this.reportDir = Path.of(env.getProperty("loadtest.report-dir", "target/loadtest"));
+
+        if (seedUsers < clients) {
+            throw new IllegalArgumentException("loadtest.seed-users must be at least loadtest.clients");
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("loadtest.mix.* weights must not all be 0");
+        }
+    }
+
+    static LoadTestSettings from(Environment env) {
+        return new LoadTestSettings(env);
+    }
+}
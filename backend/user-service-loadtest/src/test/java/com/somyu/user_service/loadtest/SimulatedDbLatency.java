@@ -0,0 +1,46 @@
+package com.somyu.user_service.loadtest;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.lang.NonNull;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Adds a fixed delay after every connection checkout ({@code loadtest.db-latency-ms}), so
+ * in-memory H2 behaves like a database across the network and request threads really block
+ * on I/O. Off by default.
+ */
+@TestConfiguration
+class SimulatedDbLatency {
+
+    @Bean
+    static BeanPostProcessor simulatedDbLatencyPostProcessor(@Value("${loadtest.db-latency-ms:0}") long latencyMs) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (latencyMs <= 0 || !(bean instanceof DataSource)) {
+                    return bean;
+                }
+                return new DelegatingDataSource((DataSource) bean) {
+                    @Override
+                    @NonNull
+                    public Connection getConnection() throws SQLException {
+                        Connection connection = super.getConnection();
+                        try {
+                            Thread.sleep(latencyMs);
+                        } catch (InterruptedException ex) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return connection;
+                    }
+                };
+            }
+        };
+    }
+}
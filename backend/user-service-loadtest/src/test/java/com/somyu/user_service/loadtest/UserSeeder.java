@@ -0,0 +1,58 @@
+package com.somyu.user_service.loadtest;
+
+import com.somyu.user_service.entity.Role;
+import com.somyu.user_service.id.IdGenerator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inserts the users that login and read traffic authenticate as.
+ * <p>
+ * All seeded users share one password, hashed once with the application's encoder, so
+ * seeding thousands of users does not spend minutes in BCrypt.
+ */
+final class UserSeeder {
+
+    static final String PASSWORD = "load-test-password";
+
+    private static final String INSERT_USER =
+            "INSERT INTO users (id, full_name, email, password, enabled, security_version, roles_mask, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, true, 0, ?, ?, ?)";
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final IdGenerator idGenerator;
+
+    UserSeeder(JdbcTemplate jdbcTemplate, PasswordEncoder passwordEncoder, IdGenerator idGenerator) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.idGenerator = idGenerator;
+    }
+
+    static String email(int i) {
+        return "seed-" + i + "@loadtest.local";
+    }
+
+    void seed(int users) {
+        String hash = passwordEncoder.encode(PASSWORD);
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < users; i++) {
+            batch.add(new Object[]{idGenerator.nextId(), "Seed User " + i, email(i), hash,
+                    Role.ROLE_USER.getBit(), now, now});
+            if (batch.size() == BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(INSERT_USER, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_USER, batch);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.somyu.user_service.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.somyu.user_service.UserServiceApplication;
+import com.somyu.user_service.id.IdGenerator;
+import com.somyu.user_service.service.EmailAvailabilityService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Starts the full application on a random port against an in-memory H2 database in
+ * PostgreSQL mode, seeds users, drives the configured traffic mix and fails when an SLO
+ * threshold is crossed.
+ * <p>
+ * {@code mvn test -Dloadtest.clients=64 -Dloadtest.duration-seconds=120}
+ */
+@SpringBootTest(classes = UserServiceApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("loadtest")
+@Import(SimulatedDbLatency.class)
+class UserServiceLoadTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private IdGenerator idGenerator;
+
+    @Autowired
+    private EmailAvailabilityService emailAvailabilityService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void meetsSlos() throws Exception {
+        LoadTestSettings settings = LoadTestSettings.from(environment);
+
+        new UserSeeder(jdbcTemplate, passwordEncoder, idGenerator).seed(settings.seedUsers);
+        // seeded rows bypass the service, so refresh the email filter like a scheduled rebuild would
+        emailAvailabilityService.rebuild();
+
+        LoadDriver.Result result = new LoadDriver(settings, "http://localhost:" + port).run();
+
+        LoadReport report = new LoadReport(settings, result);
+        System.out.println(report.toText());
+        report.write(objectMapper);
+
+        List<String> violations = report.violations();
+        assertTrue(violations.isEmpty(), () -> "SLOs crossed: " + violations);
+    }
+}
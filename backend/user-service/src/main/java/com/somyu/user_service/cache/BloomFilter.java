@@ -0,0 +1,109 @@
+package com.somyu.user_service.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Compact, lock-free Bloom filter for strings.
+ * <p>
+ * {@link #mightContain(String)} never returns false for a value that was added; it may
+ * return true for a value that was not (with roughly the configured probability).
+ * Bits are set with CAS on an {@link AtomicLongArray}, so concurrent adds and reads are safe.
+ */
+public class BloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray words;
+    private final long numBits;
+    private final int numHashes;
+
+    private BloomFilter(long numBits, int numHashes) {
+        int numWords = (int) Math.min(Integer.MAX_VALUE, (numBits + 63) >>> 6);
+        this.words = new AtomicLongArray(numWords);
+        this.numBits = (long) numWords << 6;
+        this.numHashes = numHashes;
+    }
+
+    /**
+     * Size a filter for the expected number of values and target false-positive rate.
+     */
+    public static BloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        double p = Math.min(Math.max(falsePositiveRate, 1e-9), 0.5);
+        long bits = (long) Math.ceil(-n * Math.log(p) / (LN2 * LN2));
+        int hashes = Math.max(1, (int) Math.round((double) bits / n * LN2));
+        return new BloomFilter(bits, hashes);
+    }
+
+    public void put(String value) {
+        long hash = hash64(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numHashes; i++) {
+            setBit(index(h1 + i * h2));
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long hash = hash64(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numHashes; i++) {
+            long bit = index(h1 + i * h2);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Memory held by the bit array in bytes.
+     */
+    public long sizeInBytes() {
+        return (long) words.length() * Long.BYTES;
+    }
+
+    public long bitCount() {
+        return numBits;
+    }
+
+    public int hashCount() {
+        return numHashes;
+    }
+
+    private long index(int combined) {
+        // spread the 32-bit combined hash over the full bit range
+        long mixed = (combined & 0xFFFFFFFFL) * 0x9E3779B97F4A7C15L;
+        return Math.floorMod(mixed ^ (mixed >>> 29), numBits);
+    }
+
+    private void setBit(long bit) {
+        int word = (int) (bit >>> 6);
+        long mask = 1L << bit;
+        long current;
+        do {
+            current = words.get(word);
+            if ((current & mask) != 0) {
+                return;
+            }
+        } while (!words.compareAndSet(word, current, current | mask));
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-16 chars, finished with the MurmurHash3 fmix64 avalanche.
+     */
+    private static long hash64(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
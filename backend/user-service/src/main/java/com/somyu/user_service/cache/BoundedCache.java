@@ -0,0 +1,233 @@
+package com.somyu.user_service.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Size-bounded, concurrent in-memory cache with per-entry expiry.
+ * <p>
+ * Keys are spread over independently locked segments, each kept in LRU order,
+ * so lookups for different keys rarely contend. When a segment is full the
+ * least recently used entry is evicted; expired entries are dropped lazily on read.
+ * Segments use {@link ReentrantLock} rather than monitors, so virtual threads waiting
+ * for a busy segment unmount instead of pinning their carrier thread.
+ */
+public class BoundedCache<K, V> {
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment<K, V>[] segments;
+    private final long defaultTtlMillis;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxSize          total number of entries kept across all segments
+     * @param defaultTtlMillis expiry used by {@link #put(Object, Object)}; 0 or less means no expiry
+     */
+    @SuppressWarnings("unchecked")
+    public BoundedCache(int maxSize, long defaultTtlMillis) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        int perSegment = Math.max(1, (maxSize + SEGMENTS - 1) / SEGMENTS);
+        this.segments = (Segment<K, V>[]) new Segment<?, ?>[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment<>(perSegment, evictions);
+        }
+        this.defaultTtlMillis = defaultTtlMillis;
+    }
+
+    /**
+     * Return the cached value or null if absent or expired.
+     */
+    public V get(K key) {
+        V value = segmentFor(key).get(key, System.currentTimeMillis());
+        if (value == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Read-through lookup: on a miss the loader is called outside any lock and its
+     * non-null result is cached with the default TTL.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = get(key);
+        if (value == null) {
+            value = loader.apply(key);
+            if (value != null) {
+                put(key, value);
+            }
+        }
+        return value;
+    }
+
+    public void put(K key, V value) {
+        long expiresAt = defaultTtlMillis > 0 ? System.currentTimeMillis() + defaultTtlMillis : Long.MAX_VALUE;
+        put(key, value, expiresAt);
+    }
+
+    /**
+     * Cache a value until the given epoch-millis instant.
+     */
+    public void put(K key, V value, long expiresAtMillis) {
+        segmentFor(key).put(key, value, expiresAtMillis);
+    }
+
+    public void invalidate(K key) {
+        segmentFor(key).remove(key);
+    }
+
+    public void invalidateAll() {
+        for (Segment<K, V> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * Drop every expired entry. Reads already skip them; this only reclaims memory.
+     */
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        for (Segment<K, V> segment : segments) {
+            segment.purgeExpired(now);
+        }
+    }
+
+    public long size() {
+        long size = 0;
+        for (Segment<K, V> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return segments[h & (SEGMENTS - 1)];
+    }
+
+    /* ------------------ Segment ------------------ */
+
+    private static final class Entry<V> {
+        final V value;
+        final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final class Segment<K, V> {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final int capacity;
+        private final LongAdder evictions;
+        private final LinkedHashMap<K, Entry<V>> map;
+
+        Segment(int capacity, LongAdder evictions) {
+            this.capacity = capacity;
+            this.evictions = evictions;
+            this.map = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                    if (size() > Segment.this.capacity) {
+                        Segment.this.evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        V get(K key, long now) {
+            lock.lock();
+            try {
+                Entry<V> entry = map.get(key);
+                if (entry == null) {
+                    return null;
+                }
+                if (entry.expiresAt <= now) {
+                    map.remove(key);
+                    return null;
+                }
+                return entry.value;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void put(K key, V value, long expiresAt) {
+            lock.lock();
+            try {
+                map.put(key, new Entry<>(value, expiresAt));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void remove(K key) {
+            lock.lock();
+            try {
+                map.remove(key);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void clear() {
+            lock.lock();
+            try {
+                map.clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void purgeExpired(long now) {
+            lock.lock();
+            try {
+                Iterator<Entry<V>> it = map.values().iterator();
+                while (it.hasNext()) {
+                    if (it.next().expiresAt <= now) {
+                        it.remove();
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int size() {
+            lock.lock();
+            try {
+                return map.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
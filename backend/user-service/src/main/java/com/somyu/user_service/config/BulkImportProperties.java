@@ -0,0 +1,35 @@
+package com.somyu.user_service.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings of the admin bulk user import.
+ */
+@Component
+public class BulkImportProperties {
+
+    /** Rows hashed and inserted per JDBC batch / transaction */
+    @Value("${bulk-import.chunk-size:500}")
+    private int chunkSize;
+
+    /** Threads hashing passwords during an import; 0 means one per available processor */
+    @Value("${bulk-import.hash-threads:0}")
+    private int hashThreads;
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public int getHashThreads() {
+        return hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public void setHashThreads(int hashThreads) {
+        this.hashThreads = hashThreads;
+    }
+}
@@ -0,0 +1,51 @@
+package com.somyu.user_service.config;
+
+import com.somyu.user_service.datasource.ConcurrencyLimitedDataSource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Puts a connection concurrency limit in front of the pooled DataSource.
+ * By default the limit is on only when requests run on virtual threads. With read replicas
+ * it wraps the routing DataSource, so permits count transactions rather than physical
+ * connections (see {@link ConcurrencyLimitedDataSource}).
+ */
+@Configuration
+public class DataSourceLimitConfig {
+
+    /**
+     * Static, so the post-processor is registered before the DataSource bean is created.
+     */
+    @Bean
+    public static BeanPostProcessor dataSourceLimitPostProcessor(
+            @Value("${datasource.limit.enabled:${spring.threads.virtual.enabled:false}}") boolean enabled,
+            @Value("${datasource.limit.permits:0}") int permits,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+            @Value("${datasource.limit.acquire-timeout-ms:2000}") long acquireTimeoutMs) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!enabled || !(bean instanceof DataSource) || bean instanceof ConcurrencyLimitedDataSource) {
+                    return bean;
+                }
+                // 0 permits = one per pooled connection
+                return new ConcurrencyLimitedDataSource((DataSource) bean, permits > 0 ? permits : poolSize,
+                        acquireTimeoutMs);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder dataSourceLimitMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof ConcurrencyLimitedDataSource) {
+                ((ConcurrencyLimitedDataSource) dataSource).bindTo(registry);
+            }
+        };
+    }
+}
@@ -0,0 +1,35 @@
+package com.somyu.user_service.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sizing of the in-memory Bloom filter of registered emails.
+ */
+@Component
+public class EmailFilterProperties {
+
+    /** Lower bound for the filter's capacity; rebuilds size for the actual row count plus headroom */
+    @Value("${email-filter.expected-insertions:1000000}")
+    private long expectedInsertions;
+
+    /** Target false-positive rate (a false positive only costs one index lookup) */
+    @Value("${email-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    public long getExpectedInsertions() {
+        return expectedInsertions;
+    }
+
+    public double getFalsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    public void setExpectedInsertions(long expectedInsertions) {
+        this.expectedInsertions = expectedInsertions;
+    }
+
+    public void setFalsePositiveRate(double falsePositiveRate) {
+        this.falsePositiveRate = falsePositiveRate;
+    }
+}
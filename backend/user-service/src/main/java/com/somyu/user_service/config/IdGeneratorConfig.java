@@ -0,0 +1,31 @@
+package com.somyu.user_service.config;
+
+import com.somyu.user_service.id.IdGenerator;
+import com.somyu.user_service.id.RandomUuidGenerator;
+import com.somyu.user_service.id.UuidV7Generator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Selects how primary keys for new users are generated.
+ */
+@Configuration
+public class IdGeneratorConfig {
+
+    /**
+     * user.id-generator=v7 (default, time-ordered) or random (UUID v4).
+     */
+    @Bean
+    public IdGenerator idGenerator(@Value("${user.id-generator:v7}") String type) {
+        switch (type.toLowerCase()) {
+            case "v7":
+                return UuidV7Generator.shared();
+            case "random":
+            case "v4":
+                return new RandomUuidGenerator();
+            default:
+                throw new IllegalArgumentException("Unknown user.id-generator: " + type);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.somyu.user_service.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Shared token that internal services present to call ROLE_INTERNAL endpoints.
+ */
+@Component
+public class InternalApiProperties {
+
+    /** Value expected in the X-Internal-Token header; empty disables internal access */
+    @Value("${internal.api-token:}")
+    private String apiToken;
+
+    public String getApiToken() {
+        return apiToken;
+    }
+
+    public void setApiToken(String apiToken) {
+        this.apiToken = apiToken;
+    }
+}
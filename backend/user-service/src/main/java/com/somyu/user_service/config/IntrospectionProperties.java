@@ -0,0 +1,35 @@
+package com.somyu.user_service.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Result cache of the internal token introspection endpoint.
+ */
+@Component
+public class IntrospectionProperties {
+
+    /** Maximum number of introspection results kept in memory (keyed by token digest) */
+    @Value("${auth.introspection.cache-size:50000}")
+    private int cacheSize;
+
+    /** How long a result is reused; bounds how late a revocation is seen by callers */
+    @Value("${auth.introspection.cache-ttl-ms:5000}")
+    private long cacheTtlMs;
+
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    public long getCacheTtlMs() {
+        return cacheTtlMs;
+    }
+
+    public void setCacheSize(int cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
+    public void setCacheTtlMs(long cacheTtlMs) {
+        this.cacheTtlMs = cacheTtlMs;
+    }
+}
@@ -17,6 +17,38 @@ public class JwtProperties {
     @Value("${jwt.expiration-ms:3600000}")
     private long expirationMs;
 
+    /** Maximum number of verified tokens kept in memory (keyed by token digest) */
+    @Value("${jwt.verified-cache-size:10000}")
+    private int verifiedCacheSize;
+
+    /** Build the principal from token claims only, without loading the user on each request */
+    @Value("${jwt.claims-only:false}")
+    private boolean claimsOnly;
+
+    /** Maximum number of per-user security versions kept in memory (claims-only mode) */
+    @Value("${jwt.security-version-cache-size:10000}")
+    private int securityVersionCacheSize;
+
+    /** How long a security version is trusted before it is re-read (claims-only mode) */
+    @Value("${jwt.security-version-cache-ttl-ms:30000}")
+    private long securityVersionCacheTtlMs;
+
+    /** Signing algorithm for new tokens: HS256 (shared secret) or RS256 (key pairs, published as JWKS) */
+    @Value("${jwt.algorithm:HS256}")
+    private String algorithm;
+
+    /** Directory of RS256 keys (<kid>.pem private, <kid>.pub.pem verify-only); empty = in-memory key */
+    @Value("${jwt.rsa.key-dir:}")
+    private String rsaKeyDir;
+
+    /** With RS256, keep accepting HS256 tokens until this ISO-8601 instant (migration only); empty = reject them */
+    @Value("${jwt.accept-hs256-until:}")
+    private String acceptHs256Until;
+
+    /** Cache lifetime announced for /.well-known/jwks.json */
+    @Value("${jwt.jwks.max-age-seconds:300}")
+    private long jwksMaxAgeSeconds;
+
     public String getSecret() {
         return secret;
     }
@@ -25,6 +57,38 @@ public class JwtProperties {
         return expirationMs;
     }
 
+    public int getVerifiedCacheSize() {
+        return verifiedCacheSize;
+    }
+
+    public boolean isClaimsOnly() {
+        return claimsOnly;
+    }
+
+    public int getSecurityVersionCacheSize() {
+        return securityVersionCacheSize;
+    }
+
+    public long getSecurityVersionCacheTtlMs() {
+        return securityVersionCacheTtlMs;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public String getRsaKeyDir() {
+        return rsaKeyDir;
+    }
+
+    public String getAcceptHs256Until() {
+        return acceptHs256Until;
+    }
+
+    public long getJwksMaxAgeSeconds() {
+        return jwksMaxAgeSeconds;
+    }
+
     public void setSecret(String secret) {
         this.secret = secret;
     }
@@ -32,4 +96,36 @@ public class JwtProperties {
     public void setExpirationMs(long expirationMs) {
         this.expirationMs = expirationMs;
     }
+
+    public void setVerifiedCacheSize(int verifiedCacheSize) {
+        this.verifiedCacheSize = verifiedCacheSize;
+    }
+
+    public void setClaimsOnly(boolean claimsOnly) {
+        this.claimsOnly = claimsOnly;
+    }
+
+    public void setSecurityVersionCacheSize(int securityVersionCacheSize) {
+        this.securityVersionCacheSize = securityVersionCacheSize;
+    }
+
+    public void setSecurityVersionCacheTtlMs(long securityVersionCacheTtlMs) {
+        this.securityVersionCacheTtlMs = securityVersionCacheTtlMs;
+    }
+
+    public void setAlgorithm(String algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    public void setRsaKeyDir(String rsaKeyDir) {
+        this.rsaKeyDir = rsaKeyDir;
+    }
+
+    public void setAcceptHs256Until(String acceptHs256Until) {
+        this.acceptHs256Until = acceptHs256Until;
+    }
+
+    public void setJwksMaxAgeSeconds(long jwksMaxAgeSeconds) {
+        this.jwksMaxAgeSeconds = jwksMaxAgeSeconds;
+    }
 }
@@ -0,0 +1,97 @@
+package com.somyu.user_service.config;
+
+import com.somyu.user_service.entity.Role;
+import com.somyu.user_service.repository.UserAuthView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Copies roles from the legacy {@code user_roles} table into {@code users.roles_mask}.
+ * <p>
+ * Runs once all beans exist, before the web server accepts logins, and then periodically for
+ * as long as the old table exists: during a rolling deploy, instances still on the previous
+ * version keep inserting users with an empty mask. Only rows whose mask is still 0 are touched,
+ * so every run is idempotent and safe on every instance. Until a sweep has copied them, auth
+ * lookups read such users' roles from {@code user_roles} (see {@link #withLegacyRoles}).
+ * Drop the old table once all instances run this version; the sweeps then stop:
+ * <pre>DROP TABLE user_roles;</pre>
+ */
+@Component
+public class LegacyRoleMigration implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(LegacyRoleMigration.class);
+
+    private static final String ROLE_MASK = Arrays.stream(Role.values())
+            .map(role -> "WHEN '" + role.name() + "' THEN " + role.getBit())
+            .collect(Collectors.joining(" ", "bit_or(CASE role ", " ELSE 0 END)"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    // false once user_roles is gone (or the migration is disabled): no sweeps, no fallback reads
+    private volatile boolean legacyTablePresent;
+
+    public LegacyRoleMigration(JdbcTemplate jdbcTemplate,
+                               @Value("${user.roles.migrate-legacy:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (enabled) {
+            legacyTablePresent = true;
+            migrate();
+        }
+    }
+
+    /**
+     * Copy the roles of every user whose mask is still 0.
+     */
+    @Scheduled(fixedDelayString = "${user.roles.migrate-legacy-interval-ms:60000}",
+            initialDelayString = "${user.roles.migrate-legacy-interval-ms:60000}")
+    public void migrate() {
+        if (!legacyTablePresent) {
+            return;
+        }
+        Boolean legacyTableExists = jdbcTemplate.queryForObject(
+                "SELECT to_regclass('user_roles') IS NOT NULL", Boolean.class);
+        if (!Boolean.TRUE.equals(legacyTableExists)) {
+            legacyTablePresent = false;
+            return;
+        }
+
+        int migrated = jdbcTemplate.update(
+                "UPDATE users u SET roles_mask = r.mask " +
+                "FROM (SELECT user_id, " + ROLE_MASK + " AS mask FROM user_roles GROUP BY user_id) r " +
+                "WHERE u.id = r.user_id AND u.roles_mask = 0");
+        if (migrated > 0) {
+            log.info("Migrated roles of {} users from user_roles to users.roles_mask", migrated);
+        }
+    }
+
+    /**
+     * The user with roles from {@code user_roles} if the mask is still empty and the old table
+     * exists; otherwise the user unchanged. Every registered user has at least one role, so an
+     * empty mask means a row written by an instance on the previous version.
+     */
+    public UserAuthView withLegacyRoles(UserAuthView user) {
+        if (!legacyTablePresent || !user.roles().isEmpty()) {
+            return user;
+        }
+        Integer mask = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(" + ROLE_MASK + ", 0) FROM user_roles WHERE user_id = ?", Integer.class, user.id());
+        if (mask == null || mask == 0) {
+            return user;
+        }
+        return new UserAuthView(user.id(), user.email(), user.password(), user.enabled(),
+                Role.fromMask(mask), user.securityVersion());
+    }
+}
@@ -0,0 +1,80 @@
+package com.somyu.user_service.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Token-bucket limits for login attempts per account (email) and per client address.
+ */
+@Component
+public class LoginThrottleProperties {
+
+    @Value("${auth.login-throttle.enabled:true}")
+    private boolean enabled;
+
+    /** Buckets per table; memory is 8 bytes per slot */
+    @Value("${auth.login-throttle.slots:65536}")
+    private int slots;
+
+    /** Attempts an account can make in a burst (max 255) */
+    @Value("${auth.login-throttle.email.capacity:10}")
+    private int emailCapacity;
+
+    @Value("${auth.login-throttle.email.refill-per-minute:5}")
+    private int emailRefillPerMinute;
+
+    /** Attempts one client address can make in a burst (max 255) */
+    @Value("${auth.login-throttle.ip.capacity:100}")
+    private int ipCapacity;
+
+    @Value("${auth.login-throttle.ip.refill-per-minute:60}")
+    private int ipRefillPerMinute;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getSlots() {
+        return slots;
+    }
+
+    public int getEmailCapacity() {
+        return emailCapacity;
+    }
+
+    public int getEmailRefillPerMinute() {
+        return emailRefillPerMinute;
+    }
+
+    public int getIpCapacity() {
+        return ipCapacity;
+    }
+
+    public int getIpRefillPerMinute() {
+        return ipRefillPerMinute;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public void setSlots(int slots) {
+        this.slots = slots;
+    }
+
+    public void setEmailCapacity(int emailCapacity) {
+        this.emailCapacity = emailCapacity;
+    }
+
+    public void setEmailRefillPerMinute(int emailRefillPerMinute) {
+        this.emailRefillPerMinute = emailRefillPerMinute;
+    }
+
+    public void setIpCapacity(int ipCapacity) {
+        this.ipCapacity = ipCapacity;
+    }
+
+    public void setIpRefillPerMinute(int ipRefillPerMinute) {
+        this.ipRefillPerMinute = ipRefillPerMinute;
+    }
+}
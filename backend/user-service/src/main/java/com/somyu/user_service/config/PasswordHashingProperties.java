@@ -0,0 +1,83 @@
+package com.somyu.user_service.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sizing of the dedicated worker pool that runs password hashing and verification.
+ */
+@Component
+public class PasswordHashingProperties {
+
+    /** Worker threads; 0 means one per available processor */
+    @Value("${auth.hashing.threads:0}")
+    private int threads;
+
+    /** Hash jobs allowed to wait for a worker before requests are rejected with 503 */
+    @Value("${auth.hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    /** Value of the Retry-After header sent when the queue is full */
+    @Value("${auth.hashing.retry-after-seconds:1}")
+    private int retryAfterSeconds;
+
+    /** Fixed BCrypt work factor; 0 means calibrate at startup against target-verify-ms */
+    @Value("${auth.hashing.bcrypt-strength:0}")
+    private int bcryptStrength;
+
+    /** Target duration of a single password verification when calibrating */
+    @Value("${auth.hashing.target-verify-ms:100}")
+    private long targetVerifyMs;
+
+    /** Calibration never picks a work factor below this */
+    @Value("${auth.hashing.min-strength:10}")
+    private int minStrength;
+
+    public int getThreads() {
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    public int getBcryptStrength() {
+        return bcryptStrength;
+    }
+
+    public long getTargetVerifyMs() {
+        return targetVerifyMs;
+    }
+
+    public int getMinStrength() {
+        return minStrength;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public void setRetryAfterSeconds(int retryAfterSeconds) {
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public void setBcryptStrength(int bcryptStrength) {
+        this.bcryptStrength = bcryptStrength;
+    }
+
+    public void setTargetVerifyMs(long targetVerifyMs) {
+        this.targetVerifyMs = targetVerifyMs;
+    }
+
+    public void setMinStrength(int minStrength) {
+        this.minStrength = minStrength;
+    }
+}
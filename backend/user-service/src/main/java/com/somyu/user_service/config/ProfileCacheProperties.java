@@ -0,0 +1,35 @@
+package com.somyu.user_service.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings of the cache of rendered user profiles served by the profile endpoints.
+ */
+@Component
+public class ProfileCacheProperties {
+
+    /** Maximum number of cached profiles */
+    @Value("${user.profile-cache.max-size:10000}")
+    private int maxSize;
+
+    /** Time-to-live of a cached profile in milliseconds; bounds staleness from writes on other instances */
+    @Value("${user.profile-cache.ttl-ms:60000}")
+    private long ttlMs;
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getTtlMs() {
+        return ttlMs;
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public void setTtlMs(long ttlMs) {
+        this.ttlMs = ttlMs;
+    }
+}
@@ -0,0 +1,79 @@
+package com.somyu.user_service.config;
+
+import com.somyu.user_service.datasource.ReadRoutingDataSource;
+import com.somyu.user_service.datasource.ReplicaSet;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Replaces the auto-configured DataSource with a read/write router when
+ * {@code datasource.replicas.enabled=true}. Read-only transactions
+ * ({@code @Transactional(readOnly = true)}) go to the replicas in {@code datasource.replicas.urls};
+ * everything else goes to {@code spring.datasource.url}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replicas.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    /**
+     * Replica pools and their lag check; also binds the db.replica.* gauges.
+     */
+    @Bean(destroyMethod = "")
+    public ReplicaSet replicaSet(ReplicaProperties properties,
+                                 DataSourceProperties dataSourceProperties,
+                                 MeterRegistry meterRegistry) {
+        if (properties.getUrls().length == 0) {
+            throw new IllegalStateException("datasource.replicas.enabled=true but datasource.replicas.urls is empty");
+        }
+        Map<String, DataSource> pools = new LinkedHashMap<>();
+        for (int i = 0; i < properties.getUrls().length; i++) {
+            String name = "replica-" + (i + 1);
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName(name);
+            pool.setJdbcUrl(properties.getUrls()[i].trim());
+            pool.setUsername(properties.getUsername());
+            pool.setPassword(properties.getPassword());
+            pool.setDriverClassName(dataSourceProperties.determineDriverClassName());
+            pool.setMaximumPoolSize(properties.getPoolSize());
+            pool.setReadOnly(true);
+            // a replica that is down must neither block startup nor hold requests for long
+            pool.setInitializationFailTimeout(-1);
+            pool.setConnectionTimeout(2000);
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            pools.put(name, pool);
+        }
+        return new ReplicaSet(pools, properties.getMaxLagMs(), properties.getLagCheckIntervalMs());
+    }
+
+    /**
+     * Closed by {@link ReadRoutingDataSource#close()} together with the replica pools.
+     */
+    @Bean
+    public ReadRoutingDataSource dataSource(DataSourceProperties dataSourceProperties,
+                                            ReplicaSet replicaSet,
+                                            Environment environment,
+                                            MeterRegistry meterRegistry) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        // same spring.datasource.hikari.* settings the auto-configured pool would get
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        if (primary.getPoolName() == null) {
+            primary.setPoolName("primary");
+        }
+        primary.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return new ReadRoutingDataSource(primary, replicaSet, meterRegistry);
+    }
+}
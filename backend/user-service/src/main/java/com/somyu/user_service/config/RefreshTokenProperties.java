@@ -0,0 +1,35 @@
+package com.somyu.user_service.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Refresh token lifetime and hashing key.
+ */
+@Component
+public class RefreshTokenProperties {
+
+    /** Lifetime of each refresh token; every rotation starts a new one (default 30 days) */
+    @Value("${auth.refresh.ttl-ms:2592000000}")
+    private long ttlMs;
+
+    /** HMAC key for stored token hashes; changing it invalidates all refresh tokens */
+    @Value("${auth.refresh.secret:${jwt.secret:change-me-super-secret}}")
+    private String secret;
+
+    public long getTtlMs() {
+        return ttlMs;
+    }
+
+    public String getSecret() {
+        return secret;
+    }
+
+    public void setTtlMs(long ttlMs) {
+        this.ttlMs = ttlMs;
+    }
+
+    public void setSecret(String secret) {
+        this.secret = secret;
+    }
+}
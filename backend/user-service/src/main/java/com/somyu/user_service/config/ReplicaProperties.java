@@ -0,0 +1,115 @@
+package com.somyu.user_service.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Read replicas serving read-only transactions (see {@code ReadReplicaConfig}).
+ */
+@Component
+public class ReplicaProperties {
+
+    @Value("${datasource.replicas.enabled:false}")
+    private boolean enabled;
+
+    /** JDBC URLs of the replicas, comma separated */
+    @Value("${datasource.replicas.urls:}")
+    private String[] urls;
+
+    @Value("${datasource.replicas.username:${spring.datasource.username:}}")
+    private String username;
+
+    @Value("${datasource.replicas.password:${spring.datasource.password:}}")
+    private String password;
+
+    /** Connections per replica pool */
+    @Value("${datasource.replicas.pool-size:10}")
+    private int poolSize;
+
+    /** A replica further behind than this is skipped until it catches up */
+    @Value("${datasource.replicas.max-lag-ms:1000}")
+    private long maxLagMs;
+
+    @Value("${datasource.replicas.lag-check-interval-ms:1000}")
+    private long lagCheckIntervalMs;
+
+    /** After a write to a user, reads about that user go to the primary for this long */
+    @Value("${datasource.replicas.read-your-writes-window-ms:5000}")
+    private long readYourWritesWindowMs;
+
+    /** Users (by id and by email) remembered for the read-your-writes window */
+    @Value("${datasource.replicas.read-your-writes-max-entries:10000}")
+    private int readYourWritesMaxEntries;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String[] getUrls() {
+        return urls;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public long getMaxLagMs() {
+        return maxLagMs;
+    }
+
+    public long getLagCheckIntervalMs() {
+        return lagCheckIntervalMs;
+    }
+
+    public long getReadYourWritesWindowMs() {
+        return readYourWritesWindowMs;
+    }
+
+    public int getReadYourWritesMaxEntries() {
+        return readYourWritesMaxEntries;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public void setUrls(String[] urls) {
+        this.urls = urls;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public void setPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    public void setMaxLagMs(long maxLagMs) {
+        this.maxLagMs = maxLagMs;
+    }
+
+    public void setLagCheckIntervalMs(long lagCheckIntervalMs) {
+        this.lagCheckIntervalMs = lagCheckIntervalMs;
+    }
+
+    public void setReadYourWritesWindowMs(long readYourWritesWindowMs) {
+        this.readYourWritesWindowMs = readYourWritesWindowMs;
+    }
+
+    public void setReadYourWritesMaxEntries(int readYourWritesMaxEntries) {
+        this.readYourWritesMaxEntries = readYourWritesMaxEntries;
+    }
+}
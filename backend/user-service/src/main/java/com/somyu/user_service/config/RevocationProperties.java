@@ -0,0 +1,35 @@
+package com.somyu.user_service.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Access-token revocation (denylist) limits and sync intervals.
+ */
+@Component
+public class RevocationProperties {
+
+    /** Revoked token ids held in memory; beyond this, revocation bumps the user's security version */
+    @Value("${auth.revocation.max-entries:100000}")
+    private int maxEntries;
+
+    /** How often revocations made on other instances are picked up from the database */
+    @Value("${auth.revocation.sync-interval-ms:5000}")
+    private long syncIntervalMs;
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public long getSyncIntervalMs() {
+        return syncIntervalMs;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public void setSyncIntervalMs(long syncIntervalMs) {
+        this.syncIntervalMs = syncIntervalMs;
+    }
+}
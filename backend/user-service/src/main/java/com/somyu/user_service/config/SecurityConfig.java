@@ -1,11 +1,21 @@
 package com.somyu.user_service.config;
 
 
-import com.somyu.user_service.entity.Role;
+import com.somyu.user_service.datasource.ReadYourWrites;
 import com.somyu.user_service.repository.UserRepository;
 import com.somyu.user_service.security.JwtAuthenticationFilter;
 
+import com.somyu.user_service.security.AuthenticatedUser;
+import com.somyu.user_service.security.CachedUserDetailsService;
+import com.somyu.user_service.security.CalibratedBCryptPasswordEncoder;
+import com.somyu.user_service.security.InternalApiTokenFilter;
 import com.somyu.user_service.security.JwtProvider;
+import com.somyu.user_service.security.OffloadingPasswordEncoder;
+import com.somyu.user_service.security.PasswordUpgradeService;
+import com.somyu.user_service.security.SecurityVersionRegistry;
+import com.somyu.user_service.security.TokenDenylist;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -13,15 +23,15 @@ import org.springframework.security.authentication.dao.DaoAuthenticationProvider
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.web.servlet.HandlerExceptionResolver;
 
-import java.util.stream.Collectors;
+import java.util.Map;
 
 @Configuration
 @EnableMethodSecurity
@@ -29,51 +39,78 @@ public class SecurityConfig {
 
     private final UserRepository userRepository;
     private final JwtProvider jwtProvider;
+    private final JwtProperties jwtProperties;
+    private final ReadYourWrites readYourWrites;
 
     public SecurityConfig(UserRepository userRepository,
-                          JwtProvider jwtProvider) {
+                          JwtProvider jwtProvider,
+                          JwtProperties jwtProperties,
+                          ReadYourWrites readYourWrites) {
         this.userRepository = userRepository;
         this.jwtProvider = jwtProvider;
+        this.jwtProperties = jwtProperties;
+        this.readYourWrites = readYourWrites;
     }
 
     /**
-     * Password encoder bean (BCrypt).
+     * Password encoder bean, executed on a dedicated bounded worker pool
+     * so hashing bursts cannot occupy every request thread.
+     * New hashes are "{bcrypt}"-prefixed with a fixed or calibrated cost; legacy unprefixed
+     * BCrypt hashes still verify and are upgraded on the next successful login.
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public OffloadingPasswordEncoder passwordEncoder(PasswordHashingProperties passwordHashingProperties,
+                                                     MeterRegistry meterRegistry) {
+        CalibratedBCryptPasswordEncoder bcrypt = passwordHashingProperties.getBcryptStrength() > 0
+                ? new CalibratedBCryptPasswordEncoder(passwordHashingProperties.getBcryptStrength())
+                : CalibratedBCryptPasswordEncoder.calibrated(passwordHashingProperties.getTargetVerifyMs(),
+                        passwordHashingProperties.getMinStrength());
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        return new OffloadingPasswordEncoder(delegating, passwordHashingProperties, meterRegistry);
     }
 
     /**
-     * UserDetailsService backed by UserRepository.
+     * UserDetailsService backed by UserRepository, fronted by a bounded in-memory cache.
      */
     @Bean
-    public UserDetailsService userDetailsService() {
-        return username -> userRepository.findByEmail(username)
-                .map(user -> {
-                    var authorities = user.getRoles().stream()
-                            .map(Role::name)
-                            .map(SimpleGrantedAuthority::new)
-                            .collect(Collectors.toSet());
-
-                    return org.springframework.security.core.userdetails.User.builder()
-                            .username(user.getEmail())
-                            .password(user.getPassword())
-                            .authorities(authorities)
-                            .accountLocked(false)
-                            .disabled(!user.isEnabled())
-                            .build();
-                })
+    public CachedUserDetailsService userDetailsService(UserCacheProperties userCacheProperties,
+                                                       LegacyRoleMigration legacyRoleMigration,
+                                                       MeterRegistry meterRegistry) {
+        // read-only lookup (replica if configured), on the primary right after the user's own write
+        UserDetailsService repositoryLookup = username -> readYourWrites.read(username,
+                        () -> userRepository.findAuthViewByEmail(username))
+                .map(legacyRoleMigration::withLegacyRoles)
+                .map(AuthenticatedUser::of)
                 .orElseThrow(() -> new RuntimeException("User not found with email: " + username));
+        return new CachedUserDetailsService(repositoryLookup, userCacheProperties, meterRegistry);
     }
 
     /**
      * Create JwtAuthenticationFilter as a bean (constructed using JwtProvider and UserDetailsService).
      * Declaring it as a bean here avoids constructor-based circular injection.
+     * With jwt.claims-only=true the filter skips the per-request user lookup.
+     * Database failures in the filter are rendered by the MVC exception handlers.
+     */
+    @Bean
+    public JwtAuthenticationFilter jwtAuthenticationFilter(UserDetailsService userDetailsService,
+                                                           SecurityVersionRegistry securityVersionRegistry,
+                                                           TokenDenylist tokenDenylist,
+                                                           MeterRegistry meterRegistry,
+                                                           @Qualifier("handlerExceptionResolver")
+                                                           HandlerExceptionResolver handlerExceptionResolver) {
+        return new JwtAuthenticationFilter(jwtProvider, userDetailsService, securityVersionRegistry, tokenDenylist,
+                jwtProperties, meterRegistry, handlerExceptionResolver);
+    }
+
+    /**
+     * Service-to-service authentication by shared token; runs before the JWT filter.
      */
     @Bean
-    public JwtAuthenticationFilter jwtAuthenticationFilter(UserDetailsService userDetailsService) {
-        return new JwtAuthenticationFilter(jwtProvider, userDetailsService);
+    public InternalApiTokenFilter internalApiTokenFilter(InternalApiProperties internalApiProperties) {
+        return new InternalApiTokenFilter(internalApiProperties);
     }
 
     /**
@@ -85,14 +122,17 @@ public class SecurityConfig {
     }
 
     /**
-     * DaoAuthenticationProvider wired with userDetailsService and passwordEncoder.
+     * DaoAuthenticationProvider wired with userDetailsService, passwordEncoder and password upgrades.
      */
     @Bean
     public DaoAuthenticationProvider daoAuthenticationProvider(UserDetailsService userDetailsService,
-                                                               PasswordEncoder passwordEncoder) {
+                                                               PasswordEncoder passwordEncoder,
+                                                               PasswordUpgradeService passwordUpgradeService) {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
         provider.setPasswordEncoder(passwordEncoder);
         provider.setUserDetailsService(userDetailsService);
+        // rehash on successful login when the stored hash uses an outdated algorithm or cost
+        provider.setUserDetailsPasswordService(passwordUpgradeService);
         return provider;
     }
 
@@ -101,7 +141,8 @@ public class SecurityConfig {
      */
     @Bean
     public SecurityFilterChain filterChain(org.springframework.security.config.annotation.web.builders.HttpSecurity http,
-                                           JwtAuthenticationFilter jwtAuthenticationFilter) throws Exception {
+                                           JwtAuthenticationFilter jwtAuthenticationFilter,
+                                           InternalApiTokenFilter internalApiTokenFilter) throws Exception {
 
         http
                 .csrf(csrf -> csrf.disable())
@@ -110,12 +151,16 @@ public class SecurityConfig {
                         .authenticationEntryPoint(new HttpStatusEntryPoint(org.springframework.http.HttpStatus.UNAUTHORIZED))
                 )
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/api/auth/login", "/api/user/register", "/actuator/**").permitAll()
+                        .requestMatchers("/api/auth/login", "/api/auth/refresh", "/api/user/register", "/api/user/email-available",
+                                "/.well-known/jwks.json", "/actuator/health", "/actuator/health/**", "/actuator/info").permitAll()
+                        // metrics reveal traffic and user counts; scrapers send X-Internal-Token
+                        .requestMatchers("/actuator/prometheus").hasRole("INTERNAL")
                         .anyRequest().authenticated()
                 );
 
         // Register JWT filter
         http.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+        http.addFilterBefore(internalApiTokenFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -0,0 +1,35 @@
+package com.somyu.user_service.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings of the in-memory UserDetails cache used by login and request authentication.
+ */
+@Component
+public class UserCacheProperties {
+
+    /** Maximum number of cached users */
+    @Value("${auth.user-cache.max-size:10000}")
+    private int maxSize;
+
+    /** Time-to-live of a cached user in milliseconds (default 5 minutes) */
+    @Value("${auth.user-cache.ttl-ms:300000}")
+    private long ttlMs;
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getTtlMs() {
+        return ttlMs;
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public void setTtlMs(long ttlMs) {
+        this.ttlMs = ttlMs;
+    }
+}
@@ -0,0 +1,35 @@
+package com.somyu.user_service.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings of the admin user listing and NDJSON export.
+ */
+@Component
+public class UserListingProperties {
+
+    /** Users per page when the request does not give a limit */
+    @Value("${user-listing.default-page-size:100}")
+    private int defaultPageSize;
+
+    /** Rows the JDBC driver fetches per round trip while exporting */
+    @Value("${user-listing.export-fetch-size:1000}")
+    private int exportFetchSize;
+
+    public int getDefaultPageSize() {
+        return defaultPageSize;
+    }
+
+    public int getExportFetchSize() {
+        return exportFetchSize;
+    }
+
+    public void setDefaultPageSize(int defaultPageSize) {
+        this.defaultPageSize = defaultPageSize;
+    }
+
+    public void setExportFetchSize(int exportFetchSize) {
+        this.exportFetchSize = exportFetchSize;
+    }
+}
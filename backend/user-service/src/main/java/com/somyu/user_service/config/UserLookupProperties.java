@@ -0,0 +1,47 @@
+package com.somyu.user_service.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings of the internal batch user lookup.
+ */
+@Component
+public class UserLookupProperties {
+
+    /** Keys bound per IN (...) query */
+    @Value("${user.lookup.chunk-size:1000}")
+    private int chunkSize;
+
+    /** Maximum number of users kept in memory for repeated lookups */
+    @Value("${user.lookup.cache-size:50000}")
+    private int cacheSize;
+
+    /** How long a looked-up user is reused; bounds staleness from writes on other instances */
+    @Value("${user.lookup.cache-ttl-ms:10000}")
+    private long cacheTtlMs;
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    public long getCacheTtlMs() {
+        return cacheTtlMs;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public void setCacheSize(int cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
+    public void setCacheTtlMs(long cacheTtlMs) {
+        this.cacheTtlMs = cacheTtlMs;
+    }
+}
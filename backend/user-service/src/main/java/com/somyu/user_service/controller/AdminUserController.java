@@ -0,0 +1,87 @@
+package com.somyu.user_service.controller;
+
+import com.somyu.user_service.dto.UserPage;
+import com.somyu.user_service.service.BulkUserImportService;
+import com.somyu.user_service.service.TokenRevocationService;
+import com.somyu.user_service.service.UserListingService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/admin/users")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminUserController {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final BulkUserImportService bulkUserImportService;
+    private final TokenRevocationService tokenRevocationService;
+    private final UserListingService userListingService;
+
+    public AdminUserController(BulkUserImportService bulkUserImportService,
+                               TokenRevocationService tokenRevocationService,
+                               UserListingService userListingService) {
+        this.bulkUserImportService = bulkUserImportService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.userListingService = userListingService;
+    }
+
+    /**
+     * LIST USERS
+     * - Ordered by creation time; pass the returned nextCursor as ?after= for the next page
+     */
+    @GetMapping
+    public ResponseEntity<UserPage> list(@RequestParam(required = false) String after,
+                                         @RequestParam(required = false) @Min(1) @Max(1000) Integer limit) {
+        return ResponseEntity.ok(userListingService.page(after, limit));
+    }
+
+    /**
+     * EXPORT USERS
+     * - Every user as one NDJSON line, streamed from a database cursor
+     */
+    @GetMapping(value = "/export", produces = NDJSON)
+    public void export(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        userListingService.export(response.getOutputStream());
+    }
+
+    /**
+     * BULK IMPORT
+     * - Body is CSV (fullName,email,password with optional header) or NDJSON of RegisterRequest
+     * - Request and response are both streamed; one NDJSON result line per input row
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", NDJSON})
+    public void importUsers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        BulkUserImportService.Format format = MediaType.parseMediaType(request.getContentType())
+                .isCompatibleWith(MediaType.parseMediaType("text/csv"))
+                ? BulkUserImportService.Format.CSV
+                : BulkUserImportService.Format.NDJSON;
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        bulkUserImportService.importUsers(request.getInputStream(), format, response.getOutputStream());
+    }
+
+    /**
+     * REVOKE ALL TOKENS
+     * - Every access and refresh token of the user stops working; the user has to log in again
+     */
+    @PostMapping("/{id}/revoke-tokens")
+    public ResponseEntity<Void> revokeTokens(@PathVariable UUID id) {
+        tokenRevocationService.revokeAll(id);
+        return ResponseEntity.noContent().build();
+    }
+}
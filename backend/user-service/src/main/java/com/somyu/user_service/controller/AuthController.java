@@ -2,20 +2,42 @@ package com.somyu.user_service.controller;
 
 import com.somyu.user_service.config.JwtProperties;
 import com.somyu.user_service.dto.AuthResponse;
+import com.somyu.user_service.dto.EmailAvailabilityResponse;
+import com.somyu.user_service.dto.IntrospectionRequest;
+import com.somyu.user_service.dto.IntrospectionResponse;
 import com.somyu.user_service.dto.LoginRequest;
+import com.somyu.user_service.dto.LogoutRequest;
+import com.somyu.user_service.dto.RefreshRequest;
 import com.somyu.user_service.dto.RegisterRequest;
 import com.somyu.user_service.dto.UserResponse;
+import com.somyu.user_service.exception.EmailAlreadyUsedException;
+import com.somyu.user_service.exception.InvalidRefreshTokenException;
+import com.somyu.user_service.exception.LoginThrottledException;
+import com.somyu.user_service.exception.PasswordHashingRejectedException;
+import com.somyu.user_service.metrics.OutcomeTimers;
+import com.somyu.user_service.service.EmailAvailabilityService;
+import com.somyu.user_service.service.RefreshTokenService;
+import com.somyu.user_service.service.TokenRevocationService;
 import com.somyu.user_service.service.UserService;
+import com.somyu.user_service.security.AuthenticatedUser;
 import com.somyu.user_service.security.JwtProvider;
+import com.somyu.user_service.security.LoginThrottle;
+import com.somyu.user_service.security.TokenIntrospector;
+import com.somyu.user_service.security.VerifiedToken;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Set;
@@ -29,15 +51,50 @@ public class AuthController {
     private final AuthenticationManager authenticationManager;
     private final JwtProvider jwtProvider;
     private final JwtProperties jwtProperties;
+    private final EmailAvailabilityService emailAvailabilityService;
+    private final TokenIntrospector tokenIntrospector;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService tokenRevocationService;
+    private final LoginThrottle loginThrottle;
+
+    private final OutcomeTimers loginTimers;
+    private final OutcomeTimers registerTimers;
+    private final OutcomeTimers refreshTimers;
+    private final OutcomeTimers logoutTimers;
+    private final OutcomeTimers introspectTimers;
+    private final OutcomeTimers emailAvailableTimers;
 
     public AuthController(UserService userService,
                           AuthenticationManager authenticationManager,
                           JwtProvider jwtProvider,
-                          JwtProperties jwtProperties) {
+                          JwtProperties jwtProperties,
+                          EmailAvailabilityService emailAvailabilityService,
+                          TokenIntrospector tokenIntrospector,
+                          RefreshTokenService refreshTokenService,
+                          TokenRevocationService tokenRevocationService,
+                          LoginThrottle loginThrottle,
+                          MeterRegistry meterRegistry) {
         this.userService = userService;
         this.authenticationManager = authenticationManager;
         this.jwtProvider = jwtProvider;
         this.jwtProperties = jwtProperties;
+        this.emailAvailabilityService = emailAvailabilityService;
+        this.tokenIntrospector = tokenIntrospector;
+        this.refreshTokenService = refreshTokenService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.loginThrottle = loginThrottle;
+        this.loginTimers = new OutcomeTimers(meterRegistry, "auth.endpoint.login",
+                "Login requests by outcome");
+        this.registerTimers = new OutcomeTimers(meterRegistry, "auth.endpoint.register",
+                "Registration requests by outcome");
+        this.refreshTimers = new OutcomeTimers(meterRegistry, "auth.endpoint.refresh",
+                "Refresh token exchanges by outcome");
+        this.logoutTimers = new OutcomeTimers(meterRegistry, "auth.endpoint.logout",
+                "Logout requests by outcome");
+        this.introspectTimers = new OutcomeTimers(meterRegistry, "auth.endpoint.introspect",
+                "Token introspection requests by outcome");
+        this.emailAvailableTimers = new OutcomeTimers(meterRegistry, "auth.endpoint.email_available",
+                "Email availability checks by outcome");
     }
 
     /**
@@ -45,18 +102,121 @@ public class AuthController {
      */
     @PostMapping("/user/register")
     public ResponseEntity<UserResponse> register(@Valid @RequestBody RegisterRequest request) {
-        UserResponse created = userService.register(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+        long start = System.nanoTime();
+        try {
+            UserResponse created = userService.register(request);
+            registerTimers.record("success", start);
+            return ResponseEntity.status(HttpStatus.CREATED).body(created);
+        } catch (RuntimeException ex) {
+            registerTimers.record(outcomeOf(ex), start);
+            throw ex;
+        }
+    }
+
+    /**
+     * EMAIL AVAILABILITY
+     * - Answered from the in-memory email filter when possible, otherwise from the email index
+     * - Best-effort hint: an email just registered on another instance may still show as available
+     */
+    @GetMapping("/user/email-available")
+    public ResponseEntity<EmailAvailabilityResponse> emailAvailable(@RequestParam @Email @NotBlank String email) {
+        long start = System.nanoTime();
+        try {
+            boolean available = emailAvailabilityService.isAvailable(email);
+            emailAvailableTimers.record("success", start);
+            return ResponseEntity.ok(new EmailAvailabilityResponse(email, available));
+        } catch (RuntimeException ex) {
+            emailAvailableTimers.record(outcomeOf(ex), start);
+            throw ex;
+        }
     }
 
     /**
      * LOGIN
+     * - Rate limited per email and per client address (429 + Retry-After)
      * - Throws BadCredentialsException if credentials are invalid
      * - All exceptions are handled by GlobalExceptionHandler
      */
     @PostMapping("/auth/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request,
+                                              HttpServletRequest httpRequest) {
+        long start = System.nanoTime();
+        try {
+            // before authenticate(): throttled attempts cost neither a DB lookup nor a BCrypt compare
+            loginThrottle.check(request.getEmail(), httpRequest.getRemoteAddr());
+            ResponseEntity<AuthResponse> response = doLogin(request);
+            loginTimers.record("success", start);
+            return response;
+        } catch (RuntimeException ex) {
+            loginTimers.record(outcomeOf(ex), start);
+            throw ex;
+        }
+    }
+
+    /**
+     * REFRESH
+     * - Exchanges a refresh token for a new access token and a new refresh token
+     * - The presented refresh token is spent; presenting it again revokes its whole family
+     */
+    @PostMapping("/auth/refresh")
+    public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody RefreshRequest request) {
+        long start = System.nanoTime();
+        try {
+            RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.getRefreshToken());
+            ResponseEntity<AuthResponse> response = ResponseEntity.ok(
+                    authResponse(rotation.getUser(), rotation.getRefreshToken()));
+            refreshTimers.record("success", start);
+            return response;
+        } catch (RuntimeException ex) {
+            refreshTimers.record(outcomeOf(ex), start);
+            throw ex;
+        }
+    }
+
+    /**
+     * LOGOUT
+     * - Revokes the bearer token used for this request (and the refresh token, if sent)
+     */
+    @PostMapping("/auth/logout")
+    public ResponseEntity<Void> logout(Authentication authentication,
+                                       @Valid @RequestBody(required = false) LogoutRequest request) {
+        long start = System.nanoTime();
+        if (!(authentication.getDetails() instanceof VerifiedToken)) {
+            // not authenticated with an access token (e.g. internal API token)
+            logoutTimers.record("invalid", start);
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            tokenRevocationService.logout((VerifiedToken) authentication.getDetails(),
+                    request != null ? request.getRefreshToken() : null);
+            logoutTimers.record("success", start);
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException ex) {
+            logoutTimers.record(outcomeOf(ex), start);
+            throw ex;
+        }
+    }
 
+    /**
+     * INTROSPECT (internal services only, X-Internal-Token)
+     * - One result per token, in request order; invalid, expired or revoked tokens are inactive
+     */
+    @PostMapping("/auth/introspect")
+    @PreAuthorize("hasRole('INTERNAL')")
+    public ResponseEntity<IntrospectionResponse> introspect(@Valid @RequestBody IntrospectionRequest request) {
+        long start = System.nanoTime();
+        try {
+            IntrospectionResponse response =
+                    new IntrospectionResponse(tokenIntrospector.introspect(request.getTokens()));
+            introspectTimers.record("success", start);
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException ex) {
+            introspectTimers.record(outcomeOf(ex), start);
+            throw ex;
+        }
+    }
+
+    private ResponseEntity<AuthResponse> doLogin(LoginRequest request) {
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                         request.getEmail(),
@@ -64,27 +224,51 @@ public class AuthController {
                 )
         );
 
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        // principal comes from the single login lookup and already carries the user id
+        AuthenticatedUser userDetails = (AuthenticatedUser) authentication.getPrincipal();
+
+        return ResponseEntity.ok(authResponse(userDetails, refreshTokenService.issue(userDetails)));
+    }
 
-        Set<String> roles = userDetails.getAuthorities().stream()
+    private AuthResponse authResponse(AuthenticatedUser user, String refreshToken) {
+        Set<String> roles = user.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.toSet());
 
         // Generate JWT
-        String token = jwtProvider.generateToken(userDetails, roles);
+        String token = jwtProvider.generateToken(user, roles);
 
-        // Build response
-        AuthResponse response = AuthResponse.builder()
+        return AuthResponse.builder()
                 .accessToken(token)
                 .tokenType("Bearer")
                 .expiresInMillis(jwtProperties.getExpirationMs())
-                .email(userDetails.getUsername())
+                .refreshToken(refreshToken)
+                .refreshExpiresInMillis(refreshTokenService.getTtlMs())
+                .userId(user.getId())
+                .email(user.getUsername())
                 .roles(roles)
                 .build();
+    }
 
-        userService.findUserIdByEmail(userDetails.getUsername())
-                .ifPresent(response::setUserId);
-
-        return ResponseEntity.ok(response);
+    private static String outcomeOf(RuntimeException ex) {
+        if (ex instanceof BadCredentialsException) {
+            return "bad_credentials";
+        }
+        if (ex instanceof DisabledException) {
+            return "disabled";
+        }
+        if (ex instanceof EmailAlreadyUsedException) {
+            return "conflict";
+        }
+        if (ex instanceof PasswordHashingRejectedException) {
+            return "rejected";
+        }
+        if (ex instanceof InvalidRefreshTokenException) {
+            return "invalid";
+        }
+        if (ex instanceof LoginThrottledException) {
+            return "throttled";
+        }
+        return "error";
     }
 }
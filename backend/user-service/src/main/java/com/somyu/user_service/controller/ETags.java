@@ -0,0 +1,29 @@
+package com.somyu.user_service.controller;
+
+/**
+ * Conditional request helpers shared by the controllers that serve ETags.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * If-None-Match check with weak comparison (RFC 9110 13.1.2): "*", a single tag or a list.
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
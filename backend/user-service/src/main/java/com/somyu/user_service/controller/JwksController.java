@@ -0,0 +1,113 @@
+package com.somyu.user_service.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.somyu.user_service.config.JwtProperties;
+import com.somyu.user_service.security.SigningKeyRing;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigInteger;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Publishes the token verification keys as a JSON Web Key Set (RFC 7517), so other services
+ * can verify access tokens locally and cache the keys.
+ */
+@RestController
+public class JwksController {
+
+    private final SigningKeyRing keyRing;
+    private final ObjectMapper objectMapper;
+    private final CacheControl cacheControl;
+
+    // rendered once per key set; keyRing.getVersion() changes on rotation
+    private volatile Rendered rendered;
+
+    public JwksController(SigningKeyRing keyRing, ObjectMapper objectMapper, JwtProperties jwtProperties) {
+        this.keyRing = keyRing;
+        this.objectMapper = objectMapper;
+        Duration maxAge = Duration.ofSeconds(jwtProperties.getJwksMaxAgeSeconds());
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic().staleWhileRevalidate(maxAge);
+    }
+
+    /**
+     * JWKS
+     * - Public; empty key set while tokens are signed with HS256
+     * - Conditional GET with If-None-Match returns 304
+     */
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> jwks(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                       String ifNoneMatch) throws JsonProcessingException {
+        Rendered current = render();
+        if (ETags.matches(ifNoneMatch, current.etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(current.etag)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(current.etag)
+                .cacheControl(cacheControl)
+                .body(current.body);
+    }
+
+    private Rendered render() throws JsonProcessingException {
+        long version = keyRing.getVersion();
+        Rendered current = rendered;
+        if (current != null && current.version == version) {
+            return current;
+        }
+
+        List<Map<String, String>> keys = new ArrayList<>();
+        // sorted by kid so every instance with the same keys serves the same bytes and ETag
+        new TreeMap<>(keyRing.getPublicKeys()).forEach((kid, key) -> keys.add(toJwk(kid, key)));
+        byte[] body = objectMapper.writeValueAsBytes(Map.of("keys", keys));
+        current = new Rendered(version, body, "\"" + DigestUtils.md5DigestAsHex(body) + "\"");
+        rendered = current;
+        return current;
+    }
+
+    private static Map<String, String> toJwk(String kid, RSAPublicKey key) {
+        Map<String, String> jwk = new LinkedHashMap<>();
+        jwk.put("kty", "RSA");
+        jwk.put("use", "sig");
+        jwk.put("alg", "RS256");
+        jwk.put("kid", kid);
+        jwk.put("n", base64Url(key.getModulus()));
+        jwk.put("e", base64Url(key.getPublicExponent()));
+        return jwk;
+    }
+
+    /**
+     * Unsigned big-endian base64url without padding, as JWK requires.
+     */
+    private static String base64Url(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static final class Rendered {
+        final long version;
+        final byte[] body;
+        final String etag;
+
+        Rendered(long version, byte[] body, String etag) {
+            this.version = version;
+            this.body = body;
+            this.etag = etag;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.somyu.user_service.controller;
+
+import com.somyu.user_service.dto.UserLookupRequest;
+import com.somyu.user_service.dto.UserLookupResponse;
+import com.somyu.user_service.security.AuthenticatedUser;
+import com.somyu.user_service.service.UserLookupService;
+import com.somyu.user_service.service.UserProfileService;
+import com.somyu.user_service.service.UserService;
+import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/user")
+public class UserController {
+
+    // clients may keep the profile but must revalidate it (cheap with If-None-Match)
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private final UserProfileService userProfileService;
+    private final UserService userService;
+    private final UserLookupService userLookupService;
+
+    public UserController(UserProfileService userProfileService,
+                          UserService userService,
+                          UserLookupService userLookupService) {
+        this.userProfileService = userProfileService;
+        this.userService = userService;
+        this.userLookupService = userLookupService;
+    }
+
+    /**
+     * CURRENT USER PROFILE
+     * - Conditional GET with If-None-Match returns 304 without a body
+     */
+    @GetMapping(value = "/me", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> me(Authentication authentication,
+                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                     String ifNoneMatch) {
+        UUID id = authentication.getPrincipal() instanceof AuthenticatedUser
+                ? ((AuthenticatedUser) authentication.getPrincipal()).getId()
+                : null;
+        if (id == null) {
+            // principal without an id (e.g. tokens minted before the uid claim)
+            String email = authentication.getName();
+            id = userService.findUserIdByEmail(email)
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+        }
+        return profile(id, ifNoneMatch);
+    }
+
+    /**
+     * USER PROFILE BY ID (admin)
+     */
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<byte[]> byId(@PathVariable UUID id,
+                                       @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                       String ifNoneMatch) {
+        return profile(id, ifNoneMatch);
+    }
+
+    /**
+     * BATCH LOOKUP (internal services only, X-Internal-Token)
+     * - By ids or by emails; one result per key, in request order, misses have found=false
+     */
+    @PostMapping("/lookup")
+    @PreAuthorize("hasRole('INTERNAL')")
+    public ResponseEntity<UserLookupResponse> lookup(@Valid @RequestBody UserLookupRequest request) {
+        boolean byId = request.getIds() != null && !request.getIds().isEmpty();
+        return ResponseEntity.ok(new UserLookupResponse(byId
+                ? userLookupService.byIds(request.getIds())
+                : userLookupService.byEmails(request.getEmails())));
+    }
+
+    private ResponseEntity<byte[]> profile(UUID id, String ifNoneMatch) {
+        UserProfileService.Profile profile = userProfileService.get(id);
+        if (ETags.matches(ifNoneMatch, profile.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(profile.getEtag())
+                    .cacheControl(REVALIDATE)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(profile.getEtag())
+                .cacheControl(REVALIDATE)
+                .body(profile.getJson());
+    }
+}
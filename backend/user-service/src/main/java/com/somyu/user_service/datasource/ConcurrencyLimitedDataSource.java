@@ -0,0 +1,153 @@
+package com.somyu.user_service.datasource;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.lang.NonNull;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * DataSource that admits at most a fixed number of concurrently open connections.
+ * <p>
+ * With virtual threads the request thread count is effectively unbounded, so thousands of
+ * requests can queue inside the pool at once and each of them waits out the full pool timeout.
+ * A fair semaphore in front of the pool keeps the queue FIFO and fails fast after a short wait.
+ * The caller gets {@link SQLTransientConnectionException}, which the API turns into 503.
+ * A permit is held from {@code getConnection()} until the connection is closed.
+ * Closing this DataSource closes the pool behind it.
+ * <p>
+ * In front of {@link ReadRoutingDataSource} the permit is taken for its lazy connection
+ * proxy, that is for the whole transaction, whether or not a physical connection is ever
+ * fetched from the primary or a replica. The limit then bounds concurrent transactions,
+ * which is at least as strict as bounding physical connections.
+ */
+public class ConcurrencyLimitedDataSource extends DelegatingDataSource implements MeterBinder, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ConcurrencyLimitedDataSource.class);
+
+    private final Semaphore permits;
+    private final int maxPermits;
+    private final long acquireTimeoutMs;
+    private final LongAdder rejected = new LongAdder();
+
+    public ConcurrencyLimitedDataSource(DataSource target, int maxPermits, long acquireTimeoutMs) {
+        super(target);
+        this.permits = new Semaphore(maxPermits, true);
+        this.maxPermits = maxPermits;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+    }
+
+    @Override
+    @NonNull
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return limited(super.getConnection());
+        } catch (SQLException | RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    @Override
+    @NonNull
+    public Connection getConnection(@NonNull String username, @NonNull String password) throws SQLException {
+        acquire();
+        try {
+            return limited(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    /**
+     * Close the wrapped pool. The wrapper replaces the pool bean, so the container's inferred
+     * destroy method ends up here.
+     */
+    @Override
+    public void close() {
+        DataSource target = obtainTargetDataSource();
+        if (target instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) target).close();
+            } catch (Exception ex) {
+                log.warn("Could not close the connection pool", ex);
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Gauge.builder("db.connection.permits.active", this, ds -> ds.maxPermits - ds.permits.availablePermits())
+                .description("Connections currently held through the concurrency limit")
+                .register(registry);
+        Gauge.builder("db.connection.permits.waiting", permits, Semaphore::getQueueLength)
+                .description("Threads waiting for a connection permit")
+                .register(registry);
+        FunctionCounter.builder("db.connection.permits.rejected", rejected, LongAdder::sum)
+                .description("Connection requests that timed out waiting for a permit")
+                .register(registry);
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                rejected.increment();
+                throw new SQLTransientConnectionException(
+                        "No database connection permit available within " + acquireTimeoutMs + " ms");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database connection permit", ex);
+        }
+    }
+
+    /**
+     * Wrap the connection so that closing it (once) returns the permit.
+     */
+    private Connection limited(Connection connection) {
+        AtomicBoolean closed = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                ConcurrencyLimitedDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    // identity, as Spring's own connection proxies do, so proxy.equals(proxy) holds
+                    if ("equals".equals(method.getName()) && method.getParameterCount() == 1) {
+                        return proxy == args[0];
+                    }
+                    if ("hashCode".equals(method.getName()) && method.getParameterCount() == 0) {
+                        return System.identityHashCode(proxy);
+                    }
+                    if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+                        if (closed.compareAndSet(false, true)) {
+                            try {
+                                connection.close();
+                            } finally {
+                                permits.release();
+                            }
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getTargetException();
+                    }
+                });
+    }
+}
@@ -0,0 +1,36 @@
+package com.somyu.user_service.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-thread override that sends read-only work to the primary instead of a replica.
+ * <p>
+ * Connections are fetched lazily (on the first statement), so the override only has to be in
+ * place while the queries run, not when the transaction starts.
+ */
+public final class ReadRouting {
+
+    private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>();
+
+    private ReadRouting() {
+    }
+
+    /**
+     * Run the action with every connection it opens routed to the primary.
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        Boolean previous = PRIMARY.get();
+        PRIMARY.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY.remove();
+            }
+        }
+    }
+
+    static boolean isPrimaryForced() {
+        return PRIMARY.get() != null;
+    }
+}
@@ -0,0 +1,108 @@
+package com.somyu.user_service.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sends connections of read-only transactions to a replica and everything else to the primary.
+ * <p>
+ * The transaction manager opens its connection before the read-only flag is bound to the
+ * thread. So this is a {@link LazyConnectionDataSourceProxy} over a routing DataSource: the
+ * target is picked once per transaction, when its first statement runs, and that connection
+ * serves the rest of the transaction. This relies on the connection going back to the pool
+ * when the transaction ends ({@code spring.jpa.open-in-view=false}); a connection held for the
+ * whole request would carry a replica into later write transactions. Reads go to the primary
+ * when they are pinned there by {@link ReadRouting}, or when no replica is usable. Owns and
+ * closes the pools.
+ */
+public class ReadRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final ReplicaSet replicas;
+
+    public ReadRoutingDataSource(DataSource primary, ReplicaSet replicas, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas;
+        Router router = new Router(primary, replicas, meterRegistry);
+        router.afterPropertiesSet();
+        setTargetDataSource(router);
+        afterPropertiesSet();
+    }
+
+    @Override
+    public void close() {
+        replicas.close();
+        if (primary instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) primary).close();
+            } catch (Exception ex) {
+                log.warn("Could not close the primary pool", ex);
+            }
+        }
+    }
+
+    private static final class Router extends AbstractRoutingDataSource {
+
+        private final ReplicaSet replicas;
+
+        private final Counter writes;
+        private final Counter pinned;
+        private final Counter noReplica;
+        private final Counter replicaReads;
+
+        Router(DataSource primary, ReplicaSet replicas, MeterRegistry meterRegistry) {
+            this.replicas = replicas;
+            Map<Object, Object> targets = new HashMap<>(replicas.dataSources());
+            targets.put(PRIMARY, primary);
+            setTargetDataSources(targets);
+            setDefaultTargetDataSource(primary);
+            // unknown keys are a bug, not something to paper over with the primary
+            setLenientFallback(false);
+
+            this.writes = routed(meterRegistry, "primary", "write");
+            this.pinned = routed(meterRegistry, "primary", "read_your_writes");
+            this.noReplica = routed(meterRegistry, "primary", "no_replica");
+            this.replicaReads = routed(meterRegistry, "replica", "read_only");
+        }
+
+        @Override
+        protected Object determineCurrentLookupKey() {
+            if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                writes.increment();
+                return PRIMARY;
+            }
+            if (ReadRouting.isPrimaryForced()) {
+                pinned.increment();
+                return PRIMARY;
+            }
+            String replica = replicas.next();
+            if (replica == null) {
+                noReplica.increment();
+                return PRIMARY;
+            }
+            replicaReads.increment();
+            return replica;
+        }
+
+        private static Counter routed(MeterRegistry registry, String target, String reason) {
+            return Counter.builder("db.routing.connections")
+                    .description("Connections handed out by the read/write router")
+                    .tag("target", target)
+                    .tag("reason", reason)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.somyu.user_service.datasource;
+
+import com.somyu.user_service.cache.BoundedCache;
+import com.somyu.user_service.config.ReplicaProperties;
+import com.somyu.user_service.event.UserChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived record of users written on this instance, so that reads about them skip the
+ * replicas until replication has surely caught up. For example, a login right after
+ * registration, or a profile read right after a change.
+ * <p>
+ * Users are tracked by id and by email for {@code datasource.replicas.read-your-writes-window-ms}.
+ * Keep the window above {@code max-lag-ms}, and {@code read-your-writes-max-entries} above the
+ * number of keys (two per user) written in one window; beyond that the oldest are dropped early. Writes made on other instances are not seen here;
+ * for those, replica staleness is bounded by the lag limit.
+ */
+@Component
+public class ReadYourWrites {
+
+    private final boolean enabled;
+    private final BoundedCache<String, Boolean> recentWrites;
+
+    public ReadYourWrites(ReplicaProperties properties) {
+        this.enabled = properties.isEnabled();
+        this.recentWrites = new BoundedCache<>(properties.getReadYourWritesMaxEntries(),
+                properties.getReadYourWritesWindowMs());
+    }
+
+    /**
+     * Run a read about the user with this email, on the primary if the user was written recently.
+     */
+    public <T> T read(String email, Supplier<T> action) {
+        return isRecent(normalize(email)) ? ReadRouting.onPrimary(action) : action.get();
+    }
+
+    /**
+     * Run a read about the user with this id, on the primary if the user was written recently.
+     */
+    public <T> T read(UUID id, Supplier<T> action) {
+        return id != null && isRecent(id.toString()) ? ReadRouting.onPrimary(action) : action.get();
+    }
+
+    /**
+     * Run a read about several users, on the primary if any of them was written recently.
+     */
+    public <T> T readAny(Collection<?> idsOrEmails, Supplier<T> action) {
+        if (enabled) {
+            for (Object key : idsOrEmails) {
+                if (isRecent(key instanceof String ? normalize((String) key) : String.valueOf(key))) {
+                    return ReadRouting.onPrimary(action);
+                }
+            }
+        }
+        return action.get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (event.getUserId() != null) {
+            recentWrites.put(event.getUserId().toString(), Boolean.TRUE);
+        }
+        if (event.getEmail() != null) {
+            recentWrites.put(normalize(event.getEmail()), Boolean.TRUE);
+        }
+    }
+
+    private boolean isRecent(String key) {
+        return enabled && key != null && recentWrites.get(key) != null;
+    }
+
+    private static String normalize(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,152 @@
+package com.somyu.user_service.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.NonNull;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PostgreSQL streaming replicas with round-robin selection and a replication lag check.
+ * <p>
+ * A background thread measures each replica's replay lag. A replica that is unreachable or
+ * more than {@code maxLagMs} behind is left out of the rotation until it recovers. When none
+ * is usable, {@link #next()} returns null and reads fall back to the primary.
+ */
+public class ReplicaSet implements MeterBinder, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaSet.class);
+
+    // 0 when fully replayed; otherwise time since the last replayed transaction
+    private static final String LAG_QUERY =
+            "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0 " +
+            "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    private final List<Replica> replicas;
+    private final long maxLagMs;
+    private final AtomicInteger cursor = new AtomicInteger();
+    private final ScheduledExecutorService lagChecker;
+
+    // replicas currently in rotation; replaced as a whole after each check
+    private volatile List<Replica> healthy = List.of();
+
+    public ReplicaSet(Map<String, DataSource> replicas, long maxLagMs, long checkIntervalMs) {
+        List<Replica> list = new ArrayList<>(replicas.size());
+        replicas.forEach((name, dataSource) -> list.add(new Replica(name, dataSource)));
+        this.replicas = Collections.unmodifiableList(list);
+        this.maxLagMs = maxLagMs;
+        this.lagChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        checkLag();
+        lagChecker.scheduleWithFixedDelay(this::checkLag, checkIntervalMs, checkIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Name of the next usable replica, or null if reads should go to the primary.
+     */
+    public String next() {
+        List<Replica> current = healthy;
+        if (current.isEmpty()) {
+            return null;
+        }
+        return current.get(Math.floorMod(cursor.getAndIncrement(), current.size())).name;
+    }
+
+    public Map<String, DataSource> dataSources() {
+        Map<String, DataSource> byName = new LinkedHashMap<>();
+        replicas.forEach(replica -> byName.put(replica.name, replica.dataSource));
+        return byName;
+    }
+
+    void checkLag() {
+        List<Replica> usable = new ArrayList<>(replicas.size());
+        for (Replica replica : replicas) {
+            double lag;
+            try (Connection con = replica.dataSource.getConnection();
+                 Statement st = con.createStatement();
+                 ResultSet rs = st.executeQuery(LAG_QUERY)) {
+                rs.next();
+                lag = rs.getDouble(1);
+            } catch (SQLException | RuntimeException ex) {
+                lag = Double.NaN;
+                if (replica.usable) {
+                    log.warn("Replica {} unreachable, reading from the primary instead", replica.name, ex);
+                }
+            }
+            replica.lagMs = lag;
+            boolean nowUsable = !Double.isNaN(lag) && lag <= maxLagMs;
+            if (replica.usable && !Double.isNaN(lag) && !nowUsable) {
+                log.warn("Replica {} is {} ms behind (max {}), taking it out of rotation", replica.name,
+                        (long) lag, maxLagMs);
+            } else if (!replica.usable && nowUsable) {
+                log.info("Replica {} back in rotation", replica.name);
+            }
+            replica.usable = nowUsable;
+            if (nowUsable) {
+                usable.add(replica);
+            }
+        }
+        healthy = List.copyOf(usable);
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        for (Replica replica : replicas) {
+            Gauge.builder("db.replica.lag", replica, r -> r.lagMs)
+                    .description("Replication lag in ms (NaN when unreachable)")
+                    .tag("replica", replica.name)
+                    .register(registry);
+            Gauge.builder("db.replica.usable", replica, r -> r.usable ? 1 : 0)
+                    .description("1 while the replica receives read-only traffic")
+                    .tag("replica", replica.name)
+                    .register(registry);
+        }
+    }
+
+    @Override
+    public void close() {
+        lagChecker.shutdownNow();
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) replica.dataSource).close();
+                } catch (Exception ex) {
+                    log.warn("Could not close replica pool {}", replica.name, ex);
+                }
+            }
+        }
+    }
+
+    private static final class Replica {
+        final String name;
+        final DataSource dataSource;
+        volatile double lagMs = Double.NaN;
+        // starts as usable so the first failed check is logged
+        volatile boolean usable = true;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -16,6 +16,10 @@ public class AuthResponse {
     private String tokenType; // e.g. "Bearer"
     private Long expiresInMillis;
 
+    // opaque, single use; exchange at /api/auth/refresh for a new pair
+    private String refreshToken;
+    private Long refreshExpiresInMillis;
+
     // user info
     private UUID userId;
     private String email;
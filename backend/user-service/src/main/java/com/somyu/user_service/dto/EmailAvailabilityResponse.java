@@ -0,0 +1,13 @@
+package com.somyu.user_service.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmailAvailabilityResponse {
+    private String email;
+    private boolean available;
+}
@@ -0,0 +1,27 @@
+package com.somyu.user_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Outcome of one input row of a bulk user import (streamed back as one NDJSON line).
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImportRowResult {
+
+    public enum Status { CREATED, DUPLICATE, INVALID }
+
+    private long line;
+    private String email;
+    private Status status;
+    private UUID id;
+    private List<String> errors;
+}
@@ -0,0 +1,22 @@
+package com.somyu.user_service.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IntrospectionRequest {
+
+    public static final int MAX_TOKENS = 500;
+
+    @NotEmpty(message = "At least one token is required")
+    @Size(max = MAX_TOKENS, message = "At most " + MAX_TOKENS + " tokens per request")
+    private List<@NotBlank String> tokens;
+}
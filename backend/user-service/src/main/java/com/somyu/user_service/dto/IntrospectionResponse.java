@@ -0,0 +1,16 @@
+package com.somyu.user_service.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IntrospectionResponse {
+
+    // same order as the tokens in the request
+    private List<IntrospectionResult> results;
+}
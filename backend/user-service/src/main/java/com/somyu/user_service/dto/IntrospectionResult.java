@@ -0,0 +1,27 @@
+package com.somyu.user_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Introspection of one token; only {@code active} is present when the token is not valid.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class IntrospectionResult {
+
+    private boolean active;
+    private String subject;
+    private UUID userId;
+    private Set<String> roles;
+    private Instant issuedAt;
+    private Instant expiresAt;
+}
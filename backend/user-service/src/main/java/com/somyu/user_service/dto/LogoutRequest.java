@@ -0,0 +1,16 @@
+package com.somyu.user_service.dto;
+
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LogoutRequest {
+
+    // optional; when present its whole refresh family is revoked too
+    @Size(max = 128)
+    private String refreshToken;
+}
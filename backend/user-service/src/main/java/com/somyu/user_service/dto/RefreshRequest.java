@@ -0,0 +1,17 @@
+package com.somyu.user_service.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RefreshRequest {
+
+    @NotBlank(message = "Refresh token is required")
+    @Size(max = 128)
+    private String refreshToken;
+}
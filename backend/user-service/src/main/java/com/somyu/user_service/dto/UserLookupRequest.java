@@ -0,0 +1,38 @@
+package com.somyu.user_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Batch lookup by ids or by emails (one of the two per request).
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserLookupRequest {
+
+    public static final int MAX_KEYS = 5000;
+
+    @Size(max = MAX_KEYS, message = "At most " + MAX_KEYS + " ids per request")
+    private List<@NotNull UUID> ids;
+
+    @Size(max = MAX_KEYS, message = "At most " + MAX_KEYS + " emails per request")
+    private List<@NotBlank String> emails;
+
+    @JsonIgnore
+    @AssertTrue(message = "Exactly one of ids or emails must be given")
+    public boolean isSingleKeyType() {
+        boolean byId = ids != null && !ids.isEmpty();
+        boolean byEmail = emails != null && !emails.isEmpty();
+        return byId != byEmail;
+    }
+}
@@ -0,0 +1,16 @@
+package com.somyu.user_service.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserLookupResponse {
+
+    // same order as the ids or emails in the request
+    private List<UserLookupResult> results;
+}
@@ -0,0 +1,21 @@
+package com.somyu.user_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+/**
+ * Lookup of one requested id or email; {@code user} is absent when nothing matched.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserLookupResult {
+
+    // the id or email as given in the request
+    private String key;
+    private boolean found;
+    private UserResponse user;
+}
@@ -0,0 +1,16 @@
+package com.somyu.user_service.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserPage {
+    private List<UserResponse> users;
+    // pass as ?after= to get the next page; null on the last page
+    private String nextCursor;
+}
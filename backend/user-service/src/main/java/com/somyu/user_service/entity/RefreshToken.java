@@ -0,0 +1,73 @@
+package com.somyu.user_service.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One issued refresh token. Only an HMAC of the token is stored; every rotation inserts a
+ * new row in the same family and marks the previous one as replaced.
+ */
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "idx_refresh_tokens_hash", columnList = "token_hash", unique = true),
+        @Index(name = "idx_refresh_tokens_family", columnList = "family_id"),
+        @Index(name = "idx_refresh_tokens_user", columnList = "user_id"),
+        @Index(name = "idx_refresh_tokens_expires", columnList = "expires_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RefreshToken implements Persistable<UUID> {
+
+    @Id
+    @Column(name = "id", nullable = false, updatable = false, columnDefinition = "uuid")
+    private UUID id;
+
+    // HMAC-SHA256 of the opaque token
+    @Column(name = "token_hash", nullable = false, updatable = false, length = 32)
+    private byte[] tokenHash;
+
+    @Column(name = "user_id", nullable = false, updatable = false, columnDefinition = "uuid")
+    private UUID userId;
+
+    // all tokens descending from one login; revoked together when reuse is detected
+    @Column(name = "family_id", nullable = false, updatable = false, columnDefinition = "uuid")
+    private UUID familyId;
+
+    // user's security version at issue time; a later bump invalidates the token
+    @Column(name = "security_version", nullable = false, updatable = false)
+    private int securityVersion;
+
+    @Column(name = "expires_at", nullable = false, updatable = false)
+    private Instant expiresAt;
+
+    // set when the token is exchanged; presenting it again is reuse
+    @Column(name = "replaced_at")
+    private Instant replacedAt;
+
+    @Column(name = "revoked", nullable = false)
+    private boolean revoked;
+
+    @Transient
+    @Builder.Default
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean isNew = true;
+
+    @PostPersist
+    @PostLoad
+    void markNotNew() {
+        isNew = false;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+}
@@ -0,0 +1,65 @@
+package com.somyu.user_service.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Durable record of a revoked access token (by jti), kept until the token would have
+ * expired anyway. The in-memory denylist is rebuilt and kept in sync from this table.
+ */
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "idx_revoked_tokens_revoked_at", columnList = "revoked_at"),
+        @Index(name = "idx_revoked_tokens_expires", columnList = "expires_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevokedToken implements Persistable<UUID> {
+
+    @Id
+    @Column(name = "jti", nullable = false, updatable = false, columnDefinition = "uuid")
+    private UUID jti;
+
+    @Column(name = "user_id", columnDefinition = "uuid")
+    private UUID userId;
+
+    @Column(name = "expires_at", nullable = false, updatable = false)
+    private Instant expiresAt;
+
+    @Column(name = "revoked_at", nullable = false, updatable = false)
+    private Instant revokedAt;
+
+    // set by the first instance that could not fit this row and bumped the user's security version
+    @Column(name = "fallback_applied", nullable = false, columnDefinition = "boolean not null default false")
+    @Builder.Default
+    private boolean fallbackApplied = false;
+
+    @Transient
+    @Builder.Default
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean isNew = true;
+
+    @PostPersist
+    @PostLoad
+    void markNotNew() {
+        isNew = false;
+    }
+
+    @Override
+    public UUID getId() {
+        return jti;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+}
@@ -1,7 +1,45 @@
 package com.somyu.user_service.entity;
 
 
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * User roles. Each role owns a fixed bit so a user's roles are stored as one integer
+ * ({@code users.roles_mask}); never reuse or renumber a bit.
+ */
 public enum Role {
-    ROLE_USER,
-    ROLE_ADMIN
+    ROLE_USER(1),
+    ROLE_ADMIN(1 << 1);
+
+    private final int bit;
+
+    Role(int bit) {
+        this.bit = bit;
+    }
+
+    public int getBit() {
+        return bit;
+    }
+
+    public static int toMask(Collection<Role> roles) {
+        int mask = 0;
+        if (roles != null) {
+            for (Role role : roles) {
+                mask |= role.bit;
+            }
+        }
+        return mask;
+    }
+
+    public static Set<Role> fromMask(int mask) {
+        EnumSet<Role> roles = EnumSet.noneOf(Role.class);
+        for (Role role : values()) {
+            if ((mask & role.bit) != 0) {
+                roles.add(role);
+            }
+        }
+        return roles;
+    }
 }
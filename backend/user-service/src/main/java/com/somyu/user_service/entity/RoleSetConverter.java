@@ -0,0 +1,23 @@
+package com.somyu.user_service.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.Set;
+
+/**
+ * Maps a user's role set to the integer bitmask column {@code users.roles_mask}.
+ */
+@Converter
+public class RoleSetConverter implements AttributeConverter<Set<Role>, Integer> {
+
+    @Override
+    public Integer convertToDatabaseColumn(Set<Role> roles) {
+        return Role.toMask(roles);
+    }
+
+    @Override
+    public Set<Role> convertToEntityAttribute(Integer mask) {
+        return Role.fromMask(mask != null ? mask : 0);
+    }
+}
@@ -1,10 +1,12 @@
 package com.somyu.user_service.entity;
 
 
+import com.somyu.user_service.id.UuidV7Generator;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.springframework.data.domain.Persistable;
 
 import java.time.Instant;
 import java.util.HashSet;
@@ -13,14 +15,16 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "users", indexes = {
-        @Index(name = "idx_users_email", columnList = "email", unique = true)
+        @Index(name = "idx_users_email", columnList = "email", unique = true),
+        // keyset pagination of the admin listing and export
+        @Index(name = "idx_users_created_id", columnList = "created_at, id")
 })
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class User {
+public class User implements Persistable<UUID> {
 
     @Id
     @Column(name = "id", nullable = false, updatable = false, columnDefinition = "uuid")
@@ -36,13 +40,9 @@ public class User {
     @Column(name = "password", nullable = false)
     private String password;
 
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(
-            name = "user_roles",
-            joinColumns = @JoinColumn(name = "user_id")
-    )
-    @Enumerated(EnumType.STRING)
-    @Column(name = "role")
+    // roles are a bitmask on the users row (see Role#getBit), no separate table or join
+    @Convert(converter = RoleSetConverter.class)
+    @Column(name = "roles_mask", nullable = false, columnDefinition = "integer not null default 0")
     @Builder.Default
     private Set<Role> roles = new HashSet<>();
 
@@ -50,6 +50,11 @@ public class User {
     @Builder.Default
     private boolean enabled = true;
 
+    // bumped whenever the account is disabled or its roles change; embedded in issued tokens
+    @Column(name = "security_version", nullable = false, columnDefinition = "integer not null default 0")
+    @Builder.Default
+    private int securityVersion = 0;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
@@ -58,11 +63,30 @@ public class User {
     @Column(name = "updated_at")
     private Instant updatedAt;
 
-    // convenience method to ensure id is set when building programmatically
+    // lets Spring Data call persist() for new users instead of merge(), which would SELECT first
+    @Transient
+    @Builder.Default
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean isNew = true;
+
+    // convenience method to ensure id is set when building programmatically;
+    // services normally assign ids from the configured IdGenerator
     @PrePersist
     public void prePersist() {
         if (id == null) {
-            id = UUID.randomUUID();
+            id = UuidV7Generator.shared().nextId();
         }
     }
+
+    @PostPersist
+    @PostLoad
+    void markNotNew() {
+        isNew = false;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
 }
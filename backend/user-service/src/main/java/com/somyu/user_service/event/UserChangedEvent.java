@@ -0,0 +1,27 @@
+package com.somyu.user_service.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.util.UUID;
+
+/**
+ * Published after a user's account data was written (registration, role or status change, ...).
+ * Caches holding per-user state listen to it to invalidate exactly the affected entry.
+ */
+@Value
+@AllArgsConstructor
+public class UserChangedEvent {
+    UUID userId;
+    String email;
+    // true when the account was just created, false for changes to an existing one
+    boolean registration;
+
+    public UserChangedEvent(UUID userId, String email) {
+        this(userId, email, false);
+    }
+
+    public static UserChangedEvent registered(UUID userId, String email) {
+        return new UserChangedEvent(userId, email, true);
+    }
+}
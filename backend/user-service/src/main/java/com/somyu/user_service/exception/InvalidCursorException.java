@@ -0,0 +1,10 @@
+package com.somyu.user_service.exception;
+
+/**
+ * Thrown when a pagination cursor cannot be decoded.
+ */
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
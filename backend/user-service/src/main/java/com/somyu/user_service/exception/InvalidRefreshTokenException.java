@@ -0,0 +1,10 @@
+package com.somyu.user_service.exception;
+
+/**
+ * Refresh token is unknown, expired, revoked or was already used.
+ */
+public class InvalidRefreshTokenException extends RuntimeException {
+    public InvalidRefreshTokenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,18 @@
+package com.somyu.user_service.exception;
+
+/**
+ * Thrown when a login attempt exceeds the per-account or per-address rate limit.
+ */
+public class LoginThrottledException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,18 @@
+package com.somyu.user_service.exception;
+
+/**
+ * Thrown when the password hashing pool is saturated and a request is shed instead of queued.
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    private final int retryAfterSeconds;
+
+    public PasswordHashingRejectedException(String message, int retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,11 @@
+package com.somyu.user_service.id;
+
+import java.util.UUID;
+
+/**
+ * Source of primary keys for new users. Implementations must be thread-safe.
+ */
+public interface IdGenerator {
+
+    UUID nextId();
+}
@@ -0,0 +1,14 @@
+package com.somyu.user_service.id;
+
+import java.util.UUID;
+
+/**
+ * Random (version 4) UUIDs; keys are spread uniformly over the primary-key index.
+ */
+public class RandomUuidGenerator implements IdGenerator {
+
+    @Override
+    public UUID nextId() {
+        return UUID.randomUUID();
+    }
+}
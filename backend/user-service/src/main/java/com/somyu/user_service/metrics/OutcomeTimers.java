@@ -0,0 +1,41 @@
+package com.somyu.user_service.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Family of timers sharing one metric name and differing only by their {@code outcome} tag.
+ * Timers are registered once per outcome and reused, keeping hot paths free of registry lookups.
+ * Percentiles and histograms are configured by name prefix in application.properties.
+ */
+public class OutcomeTimers {
+
+    private final MeterRegistry registry;
+    private final String name;
+    private final String description;
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public OutcomeTimers(MeterRegistry registry, String name, String description) {
+        this.registry = registry;
+        this.name = name;
+        this.description = description;
+    }
+
+    public Timer get(String outcome) {
+        return timers.computeIfAbsent(outcome, o -> Timer.builder(name)
+                .description(description)
+                .tag("outcome", o)
+                .register(registry));
+    }
+
+    /**
+     * Record the time elapsed since {@code startNanos} (from {@link System#nanoTime()}).
+     */
+    public void record(String outcome, long startNanos) {
+        get(outcome).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+}
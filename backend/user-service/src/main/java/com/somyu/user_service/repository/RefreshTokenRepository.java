@@ -0,0 +1,37 @@
+package com.somyu.user_service.repository;
+
+import com.somyu.user_service.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID> {
+
+    Optional<RefreshToken> findByTokenHash(byte[] tokenHash);
+
+    /**
+     * Mark a token as exchanged; returns 0 if it was already exchanged or revoked, so two
+     * concurrent refreshes with the same token cannot both succeed.
+     */
+    @Modifying
+    @Query("update RefreshToken t set t.replacedAt = :now " +
+            "where t.id = :id and t.replacedAt is null and t.revoked = false")
+    int markReplaced(@Param("id") UUID id, @Param("now") Instant now);
+
+    @Modifying
+    @Query("update RefreshToken t set t.revoked = true where t.familyId = :familyId and t.revoked = false")
+    int revokeFamily(@Param("familyId") UUID familyId);
+
+    @Modifying
+    @Query("update RefreshToken t set t.revoked = true where t.userId = :userId and t.revoked = false")
+    int revokeAllForUser(@Param("userId") UUID userId);
+
+    @Modifying
+    @Query("delete from RefreshToken t where t.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
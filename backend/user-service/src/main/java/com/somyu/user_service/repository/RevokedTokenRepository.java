@@ -0,0 +1,24 @@
+package com.somyu.user_service.repository;
+
+import com.somyu.user_service.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, UUID> {
+
+    @Modifying
+    @Query("delete from RevokedToken t where t.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+
+    /**
+     * Claim the overflow fallback for a row; returns 0 if another poll or instance already did.
+     */
+    @Modifying
+    @Query("update RevokedToken t set t.fallbackApplied = true where t.jti = :jti and t.fallbackApplied = false")
+    int claimFallback(@Param("jti") UUID jti);
+}
@@ -0,0 +1,18 @@
+package com.somyu.user_service.repository;
+
+import com.somyu.user_service.entity.Role;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Read-only projection with just the columns authentication needs; loaded as a DTO,
+ * so no entity is tracked in the persistence context.
+ */
+public record UserAuthView(UUID id,
+                           String email,
+                           String password,
+                           boolean enabled,
+                           Set<Role> roles,
+                           int securityVersion) {
+}
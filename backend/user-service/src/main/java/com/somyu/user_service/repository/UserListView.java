@@ -0,0 +1,20 @@
+package com.somyu.user_service.repository;
+
+import com.somyu.user_service.entity.Role;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Read-only projection of the columns returned by the API (no password hash);
+ * loaded as a DTO, so no entity is tracked in the persistence context.
+ */
+public record UserListView(UUID id,
+                           String fullName,
+                           String email,
+                           Set<Role> roles,
+                           boolean enabled,
+                           Instant createdAt,
+                           Instant updatedAt) {
+}
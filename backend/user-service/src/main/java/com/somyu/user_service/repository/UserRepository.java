@@ -1,14 +1,109 @@
 package com.somyu.user_service.repository;
 
 import com.somyu.user_service.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Reads marked {@code @Transactional(readOnly = true)} may be served by a read replica when
+ * {@code datasource.replicas.enabled=true}; inside a read-write transaction they join it and
+ * stay on the primary.
+ */
 public interface UserRepository extends JpaRepository<User, UUID> {
 
     Optional<User> findByEmail(String email);
 
     boolean existsByEmail(String email);
-}
\ No newline at end of file
+
+    /**
+     * Authentication lookup: one row, DTO projection, no entity or collection hydration.
+     */
+    @Transactional(readOnly = true)
+    @Query("select new com.somyu.user_service.repository.UserAuthView(" +
+            "u.id, u.email, u.password, u.enabled, u.roles, u.securityVersion) " +
+            "from User u where u.email = :email")
+    Optional<UserAuthView> findAuthViewByEmail(@Param("email") String email);
+
+    @Transactional(readOnly = true)
+    @Query("select new com.somyu.user_service.repository.UserAuthView(" +
+            "u.id, u.email, u.password, u.enabled, u.roles, u.securityVersion) " +
+            "from User u where u.id = :id")
+    Optional<UserAuthView> findAuthViewById(@Param("id") UUID id);
+
+    @Transactional(readOnly = true)
+    @Query("select new com.somyu.user_service.repository.UserListView(" +
+            "u.id, u.fullName, u.email, u.roles, u.enabled, u.createdAt, u.updatedAt) " +
+            "from User u where u.id = :id")
+    Optional<UserListView> findListViewById(@Param("id") UUID id);
+
+    @Transactional(readOnly = true)
+    @Query("select new com.somyu.user_service.repository.UserListView(" +
+            "u.id, u.fullName, u.email, u.roles, u.enabled, u.createdAt, u.updatedAt) " +
+            "from User u where u.id in :ids")
+    List<UserListView> findListViewsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Transactional(readOnly = true)
+    @Query("select new com.somyu.user_service.repository.UserListView(" +
+            "u.id, u.fullName, u.email, u.roles, u.enabled, u.createdAt, u.updatedAt) " +
+            "from User u where u.email in :emails")
+    List<UserListView> findListViewsByEmailIn(@Param("emails") Collection<String> emails);
+
+    /**
+     * First page of the admin listing, in (createdAt, id) order.
+     */
+    @Transactional(readOnly = true)
+    @Query("select new com.somyu.user_service.repository.UserListView(" +
+            "u.id, u.fullName, u.email, u.roles, u.enabled, u.createdAt, u.updatedAt) " +
+            "from User u order by u.createdAt, u.id")
+    List<UserListView> findListViews(Limit limit);
+
+    /**
+     * Next page after the given (createdAt, id) key. The redundant {@code createdAt >=} bound makes
+     * the scan start at the cursor in idx_users_created_id instead of filtering from the beginning.
+     */
+    @Transactional(readOnly = true)
+    @Query("select new com.somyu.user_service.repository.UserListView(" +
+            "u.id, u.fullName, u.email, u.roles, u.enabled, u.createdAt, u.updatedAt) " +
+            "from User u where u.createdAt >= :createdAt " +
+            "and (u.createdAt > :createdAt or u.id > :id) " +
+            "order by u.createdAt, u.id")
+    List<UserListView> findListViewsAfter(@Param("createdAt") Instant createdAt,
+                                          @Param("id") UUID id,
+                                          Limit limit);
+
+    @Transactional(readOnly = true)
+    @Query("select u.id from User u where u.email = :email")
+    Optional<UUID> findIdByEmail(@Param("email") String email);
+
+    /**
+     * Current security version of an enabled account, or -1 if the account is disabled.
+     */
+    @Transactional(readOnly = true)
+    @Query("select case when u.enabled = true then u.securityVersion else -1 end from User u where u.email = :email")
+    Optional<Integer> findSecurityVersionByEmail(@Param("email") String email);
+
+    /**
+     * Invalidate every token issued to this user so far (tokens carry the version they were issued with).
+     */
+    @Modifying
+    @Query("update User u set u.securityVersion = u.securityVersion + 1 where u.id = :id")
+    int incrementSecurityVersion(@Param("id") UUID id);
+
+    @Modifying
+    @Query("update User u set u.securityVersion = u.securityVersion + 1 where u.email = :email")
+    int incrementSecurityVersionByEmail(@Param("email") String email);
+
+    @Modifying
+    @Query("update User u set u.password = :password where u.email = :email")
+    int updatePasswordByEmail(@Param("email") String email, @Param("password") String password);
+}
@@ -0,0 +1,65 @@
+package com.somyu.user_service.security;
+
+import com.somyu.user_service.entity.Role;
+import com.somyu.user_service.repository.UserAuthView;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Spring Security principal that also carries the user id and the account's security
+ * version, so login can build its response and token without another lookup and later
+ * requests can check the version embedded in the token.
+ */
+public class AuthenticatedUser extends User {
+
+    private final UUID id;
+    private final int securityVersion;
+
+    public AuthenticatedUser(UUID id,
+                             String username,
+                             String password,
+                             boolean enabled,
+                             Collection<? extends GrantedAuthority> authorities,
+                             int securityVersion) {
+        super(username, password, enabled, true, true, true, authorities);
+        this.id = id;
+        this.securityVersion = securityVersion;
+    }
+
+    /**
+     * Principal for an authentication lookup row.
+     */
+    public static AuthenticatedUser of(UserAuthView user) {
+        var authorities = user.roles().stream()
+                .map(Role::name)
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toSet());
+        return new AuthenticatedUser(user.id(), user.email(), user.password(), user.enabled(), authorities,
+                user.securityVersion());
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public int getSecurityVersion() {
+        return securityVersion;
+    }
+
+    /**
+     * Fresh instance with the same data; cached principals are handed out as copies
+     * because Spring Security erases credentials of the principal it returns.
+     */
+    public AuthenticatedUser copy() {
+        return withPassword(getPassword());
+    }
+
+    public AuthenticatedUser withPassword(String password) {
+        return new AuthenticatedUser(id, getUsername(), password, isEnabled(), getAuthorities(), securityVersion);
+    }
+}
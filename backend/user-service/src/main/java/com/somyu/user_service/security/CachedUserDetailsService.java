@@ -0,0 +1,68 @@
+package com.somyu.user_service.security;
+
+import com.somyu.user_service.cache.BoundedCache;
+import com.somyu.user_service.config.UserCacheProperties;
+import com.somyu.user_service.event.UserChangedEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * UserDetailsService decorator that keeps recently loaded users in a bounded, expiring cache.
+ * <p>
+ * Callers always receive a copy, because Spring Security erases the password of the
+ * principal it returns after a successful login. Entries are invalidated per email when a
+ * {@link UserChangedEvent} is published.
+ */
+public class CachedUserDetailsService implements UserDetailsService {
+
+    private final UserDetailsService delegate;
+    private final BoundedCache<String, UserDetails> cache;
+
+    public CachedUserDetailsService(UserDetailsService delegate,
+                                    UserCacheProperties properties,
+                                    MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.cache = new BoundedCache<>(properties.getMaxSize(), properties.getTtlMs());
+
+        FunctionCounter.builder("auth.user.cache.requests", cache, BoundedCache::hitCount)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("auth.user.cache.requests", cache, BoundedCache::missCount)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("auth.user.cache.evictions", cache, BoundedCache::evictionCount)
+                .register(meterRegistry);
+        Gauge.builder("auth.user.cache.size", cache, BoundedCache::size)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        return copyOf(cache.get(username, delegate::loadUserByUsername));
+    }
+
+    /**
+     * Drop the cached entry for this email.
+     */
+    public void invalidate(String email) {
+        cache.invalidate(email);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        invalidate(event.getEmail());
+    }
+
+    private static UserDetails copyOf(UserDetails details) {
+        if (details instanceof AuthenticatedUser) {
+            return ((AuthenticatedUser) details).copy();
+        }
+        return User.withUserDetails(details).build();
+    }
+}
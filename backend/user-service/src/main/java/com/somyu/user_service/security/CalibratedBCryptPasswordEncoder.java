@@ -0,0 +1,85 @@
+package com.somyu.user_service.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * BCrypt encoder whose work factor is either fixed or calibrated on the current hardware,
+ * and which asks for a rehash when a stored hash was produced with a different cost.
+ */
+public class CalibratedBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Logger log = LoggerFactory.getLogger(CalibratedBCryptPasswordEncoder.class);
+
+    private static final int MAX_STRENGTH = 31;
+    private static final int PROBE_STRENGTH = 8;
+    private static final int PROBE_ROUNDS = 5;
+
+    private final int strength;
+
+    public CalibratedBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    /**
+     * Pick the work factor whose verify time is closest to the target on this machine.
+     * Each extra cost step doubles the work, so one cheap probe is enough to extrapolate.
+     */
+    public static CalibratedBCryptPasswordEncoder calibrated(long targetVerifyMs, int minStrength) {
+        String probe = "calibration-probe-password";
+        String probeHash = BCrypt.hashpw(probe, BCrypt.gensalt(PROBE_STRENGTH));
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < PROBE_ROUNDS; i++) {
+            long start = System.nanoTime();
+            BCrypt.checkpw(probe, probeHash);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        double probeMs = Math.max(best / 1_000_000.0, 0.001);
+        int strength = PROBE_STRENGTH + (int) Math.round(Math.log(targetVerifyMs / probeMs) / Math.log(2));
+        strength = Math.max(minStrength, Math.min(MAX_STRENGTH, strength));
+
+        log.info("BCrypt calibrated to strength {} (cost {} verify took {} ms, target {} ms)",
+                strength, PROBE_STRENGTH, String.format("%.2f", probeMs), targetVerifyMs);
+        return new CalibratedBCryptPasswordEncoder(strength);
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    /**
+     * Rehash hashes that are cheaper than the current cost, or more than one step more
+     * expensive. The one-step tolerance keeps pods on slightly different hardware from
+     * rewriting each other's hashes on every login.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        int stored = storedStrength(encodedPassword);
+        if (stored < 0) {
+            return false;
+        }
+        return stored < strength || stored > strength + 1;
+    }
+
+    /**
+     * Parse the cost from a "$2a$NN$..." hash, or -1 if it is not a BCrypt hash.
+     */
+    private static int storedStrength(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$') {
+            return -1;
+        }
+        int costStart = encodedPassword.indexOf('$', 1) + 1;
+        if (costStart <= 0 || costStart + 2 > encodedPassword.length()) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(costStart, costStart + 2));
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+}
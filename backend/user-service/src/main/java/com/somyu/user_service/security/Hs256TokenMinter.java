@@ -0,0 +1,264 @@
+package com.somyu.user_service.security;
+
+import javax.crypto.Mac;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * HS256 token writer for the one claim shape {@link JwtProvider} issues.
+ * <p>
+ * The base64url header segment is computed once. The payload JSON, the base64url output and the
+ * HMAC use pooled buffers and a pooled {@link Mac} (see {@link MacPool}; pooled rather than per
+ * thread, so virtual threads reuse them too). A token then costs one String, instead of a claims
+ * map, Dates, a JJWT builder and Jackson serialization of a constant header. Output is a standard
+ * compact JWS ({@code {"alg":"HS256"}} header, NumericDate iat/exp) that the JJWT parser reads
+ * exactly like a token from {@code Jwts.builder()}.
+ */
+final class Hs256TokenMinter {
+
+    private static final byte[] HEADER_SEGMENT = Base64.getUrlEncoder().withoutPadding()
+            .encode("{\"alg\":\"HS256\"}".getBytes(StandardCharsets.US_ASCII));
+    private static final byte[] BASE64URL =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final int SIGNATURE_BYTES = 32;
+
+    private final MacPool macs;
+    private final BlockingQueue<Buffers> idleBuffers =
+            new ArrayBlockingQueue<>(Runtime.getRuntime().availableProcessors() * 2);
+
+    Hs256TokenMinter(Key key) {
+        this.macs = new MacPool("HmacSHA256", key);
+    }
+
+    /**
+     * Write and sign a token; {@code subject}, {@code userId} and {@code securityVersion} may be
+     * null and are then left out, {@code roles} may be empty.
+     */
+    String mint(UUID tokenId, String subject, UUID userId, Integer securityVersion,
+                Collection<String> roles, long issuedAtSeconds, long expiresAtSeconds) {
+        Buffers b = idleBuffers.poll();
+        if (b == null) {
+            b = new Buffers();
+        }
+
+        JsonWriter json = b.json;
+        json.reset();
+        json.raw("{\"jti\":\"").uuid(tokenId).raw('"');
+        if (subject != null) {
+            json.raw(",\"sub\":").string(subject);
+        }
+        if (userId != null) {
+            json.raw(",\"uid\":\"").uuid(userId).raw('"');
+        }
+        if (securityVersion != null) {
+            json.raw(",\"sv\":").number(securityVersion);
+        }
+        if (roles != null && !roles.isEmpty()) {
+            json.raw(",\"roles\":[");
+            boolean first = true;
+            for (String role : roles) {
+                if (!first) {
+                    json.raw(',');
+                }
+                json.string(role);
+                first = false;
+            }
+            json.raw(']');
+        }
+        json.raw(",\"iat\":").number(issuedAtSeconds);
+        json.raw(",\"exp\":").number(expiresAtSeconds);
+        json.raw('}');
+
+        // header.payload.signature, all base64url without padding
+        int signedLength = HEADER_SEGMENT.length + 1 + encodedLength(json.length);
+        byte[] out = b.output(signedLength + 1 + encodedLength(SIGNATURE_BYTES));
+        System.arraycopy(HEADER_SEGMENT, 0, out, 0, HEADER_SEGMENT.length);
+        int pos = HEADER_SEGMENT.length;
+        out[pos++] = '.';
+        pos = encode(json.bytes, json.length, out, pos);
+
+        Mac mac = macs.acquire();
+        try {
+            mac.update(out, 0, pos);
+            mac.doFinal(b.signature, 0);
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("HMAC signing failed", ex);
+        }
+        // not returned on failure: a Mac that threw mid-update may not be reset
+        macs.release(mac);
+        out[pos++] = '.';
+        pos = encode(b.signature, SIGNATURE_BYTES, out, pos);
+
+        String token = new String(out, 0, pos, StandardCharsets.US_ASCII);
+        idleBuffers.offer(b);
+        return token;
+    }
+
+    private static int encodedLength(int length) {
+        return (length * 4 + 2) / 3;
+    }
+
+    /**
+     * Base64url without padding, appended to {@code out} at {@code pos}; returns the new position.
+     */
+    private static int encode(byte[] src, int length, byte[] out, int pos) {
+        int i = 0;
+        for (; i + 3 <= length; i += 3) {
+            int bits = (src[i] & 0xff) << 16 | (src[i + 1] & 0xff) << 8 | (src[i + 2] & 0xff);
+            out[pos++] = BASE64URL[bits >>> 18];
+            out[pos++] = BASE64URL[(bits >>> 12) & 0x3f];
+            out[pos++] = BASE64URL[(bits >>> 6) & 0x3f];
+            out[pos++] = BASE64URL[bits & 0x3f];
+        }
+        int remaining = length - i;
+        if (remaining == 1) {
+            int bits = (src[i] & 0xff) << 16;
+            out[pos++] = BASE64URL[bits >>> 18];
+            out[pos++] = BASE64URL[(bits >>> 12) & 0x3f];
+        } else if (remaining == 2) {
+            int bits = (src[i] & 0xff) << 16 | (src[i + 1] & 0xff) << 8;
+            out[pos++] = BASE64URL[bits >>> 18];
+            out[pos++] = BASE64URL[(bits >>> 12) & 0x3f];
+            out[pos++] = BASE64URL[(bits >>> 6) & 0x3f];
+        }
+        return pos;
+    }
+
+    private static final class Buffers {
+        final JsonWriter json = new JsonWriter();
+        final byte[] signature = new byte[SIGNATURE_BYTES];
+        byte[] out = new byte[512];
+
+        byte[] output(int capacity) {
+            if (out.length < capacity) {
+                out = new byte[Math.max(capacity, out.length * 2)];
+            }
+            return out;
+        }
+    }
+
+    /**
+     * Minimal UTF-8 JSON writer over a growable byte array.
+     */
+    private static final class JsonWriter {
+        byte[] bytes = new byte[256];
+        int length;
+
+        void reset() {
+            length = 0;
+        }
+
+        JsonWriter raw(char c) {
+            ensure(1);
+            bytes[length++] = (byte) c;
+            return this;
+        }
+
+        JsonWriter raw(String ascii) {
+            ensure(ascii.length());
+            for (int i = 0; i < ascii.length(); i++) {
+                bytes[length++] = (byte) ascii.charAt(i);
+            }
+            return this;
+        }
+
+        JsonWriter number(long value) {
+            if (value == Long.MIN_VALUE) {
+                return raw(Long.toString(value));
+            }
+            ensure(20);
+            if (value < 0) {
+                bytes[length++] = '-';
+                value = -value;
+            }
+            int start = length;
+            do {
+                bytes[length++] = (byte) ('0' + (value % 10));
+                value /= 10;
+            } while (value != 0);
+            // digits were written least significant first
+            for (int i = start, j = length - 1; i < j; i++, j--) {
+                byte tmp = bytes[i];
+                bytes[i] = bytes[j];
+                bytes[j] = tmp;
+            }
+            return this;
+        }
+
+        JsonWriter uuid(UUID id) {
+            ensure(36);
+            hex(id.getMostSignificantBits() >>> 32, 8);
+            bytes[length++] = '-';
+            hex(id.getMostSignificantBits() >>> 16, 4);
+            bytes[length++] = '-';
+            hex(id.getMostSignificantBits(), 4);
+            bytes[length++] = '-';
+            hex(id.getLeastSignificantBits() >>> 48, 4);
+            bytes[length++] = '-';
+            hex(id.getLeastSignificantBits(), 12);
+            return this;
+        }
+
+        /**
+         * Quoted JSON string, escaped per RFC 8259, encoded as UTF-8.
+         */
+        JsonWriter string(String value) {
+            // worst case: every char a 6-byte \\u escape
+            ensure(value.length() * 6 + 2);
+            bytes[length++] = '"';
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"' || c == '\\') {
+                    bytes[length++] = '\\';
+                    bytes[length++] = (byte) c;
+                } else if (c < 0x20) {
+                    bytes[length++] = '\\';
+                    bytes[length++] = 'u';
+                    hex(c, 4);
+                } else if (c < 0x80) {
+                    bytes[length++] = (byte) c;
+                } else if (c < 0x800) {
+                    bytes[length++] = (byte) (0xc0 | (c >> 6));
+                    bytes[length++] = (byte) (0x80 | (c & 0x3f));
+                } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, value.charAt(++i));
+                    bytes[length++] = (byte) (0xf0 | (cp >> 18));
+                    bytes[length++] = (byte) (0x80 | ((cp >> 12) & 0x3f));
+                    bytes[length++] = (byte) (0x80 | ((cp >> 6) & 0x3f));
+                    bytes[length++] = (byte) (0x80 | (cp & 0x3f));
+                } else if (Character.isSurrogate(c)) {
+                    // unpaired surrogate: same replacement String.getBytes(UTF_8) uses
+                    bytes[length++] = '?';
+                } else {
+                    bytes[length++] = (byte) (0xe0 | (c >> 12));
+                    bytes[length++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                    bytes[length++] = (byte) (0x80 | (c & 0x3f));
+                }
+            }
+            bytes[length++] = '"';
+            return this;
+        }
+
+        private void hex(long value, int digits) {
+            for (int shift = (digits - 1) * 4; shift >= 0; shift -= 4) {
+                bytes[length++] = HEX[(int) (value >>> shift) & 0xf];
+            }
+        }
+
+        private void ensure(int extra) {
+            if (length + extra > bytes.length) {
+                byte[] grown = new byte[Math.max(length + extra, bytes.length * 2)];
+                System.arraycopy(bytes, 0, grown, 0, length);
+                bytes = grown;
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.somyu.user_service.security;
+
+import com.somyu.user_service.config.InternalApiProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+/**
+ * Authenticates service-to-service calls that carry the shared internal API token,
+ * granting ROLE_INTERNAL. Requests without the header fall through to JWT authentication.
+ */
+public class InternalApiTokenFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Internal-Token";
+    static final String ROLE_INTERNAL = "ROLE_INTERNAL";
+
+    private final byte[] expected;
+
+    public InternalApiTokenFilter(InternalApiProperties properties) {
+        String token = properties.getApiToken();
+        this.expected = StringUtils.hasText(token) ? token.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        String presented = request.getHeader(HEADER);
+        // constant-time comparison, so the token cannot be guessed byte by byte
+        if (expected != null && presented != null
+                && MessageDigest.isEqual(expected, presented.getBytes(StandardCharsets.UTF_8))) {
+            var auth = new UsernamePasswordAuthenticationToken("internal", null,
+                    List.of(new SimpleGrantedAuthority(ROLE_INTERNAL)));
+            SecurityContextHolder.getContext().setAuthentication(auth);
+        }
+        filterChain.doFilter(request, response);
+    }
+}
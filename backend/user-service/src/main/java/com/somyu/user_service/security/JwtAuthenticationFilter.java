@@ -1,10 +1,14 @@
 package com.somyu.user_service.security;
 
+import com.somyu.user_service.config.JwtProperties;
+import com.somyu.user_service.metrics.OutcomeTimers;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.context.annotation.Bean;
+import org.springframework.dao.DataAccessException;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -12,16 +16,22 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
 
 import java.io.IOException;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
  * Filter that extracts JWT from Authorization header, validates it and sets Authentication
- * in the SecurityContext if valid.
+ * in the SecurityContext if valid. Requests already authenticated by an earlier filter are
+ * left as they are. Database failures during the user lookup are answered through the
+ * API's exception handlers (503 when no connection is available) rather than letting the
+ * request continue unauthenticated.
  */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -31,11 +41,27 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtProvider jwtProvider;
     private final UserDetailsService userDetailsService;
+    private final SecurityVersionRegistry securityVersionRegistry;
+    private final TokenDenylist tokenDenylist;
+    private final boolean claimsOnly;
+    private final OutcomeTimers filterTimers;
+    private final HandlerExceptionResolver exceptionResolver;
 
     public JwtAuthenticationFilter(JwtProvider jwtProvider,
-                                   UserDetailsService userDetailsService) {
+                                   UserDetailsService userDetailsService,
+                                   SecurityVersionRegistry securityVersionRegistry,
+                                   TokenDenylist tokenDenylist,
+                                   JwtProperties jwtProperties,
+                                   MeterRegistry meterRegistry,
+                                   HandlerExceptionResolver exceptionResolver) {
         this.jwtProvider = jwtProvider;
         this.userDetailsService = userDetailsService;
+        this.securityVersionRegistry = securityVersionRegistry;
+        this.tokenDenylist = tokenDenylist;
+        this.claimsOnly = jwtProperties.isClaimsOnly();
+        this.filterTimers = new OutcomeTimers(meterRegistry, "auth.filter",
+                "JWT authentication filter (outcome: authenticated, anonymous, rejected, error)");
+        this.exceptionResolver = exceptionResolver;
     }
 
     @Override
@@ -43,37 +69,82 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     @NonNull HttpServletResponse response,
                                     @NonNull FilterChain filterChain) throws ServletException, IOException {
 
+        if (SecurityContextHolder.getContext().getAuthentication() != null) {
+            // already authenticated upstream (internal API token); a forwarded end-user token must not replace it
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        String outcome = "anonymous";
         try {
             String token = resolveToken(request);
-            if (StringUtils.hasText(token) && jwtProvider.validateToken(token)) {
-                String username = jwtProvider.getUsernameFromToken(token);
-                if (username != null) {
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-                    // Optionally, you can derive authorities from token claims instead of loading userDetails roles
-                    Set<SimpleGrantedAuthority> authorities = jwtProvider.getRolesFromToken(token).stream()
-                            .map(SimpleGrantedAuthority::new)
-                            .collect(Collectors.toSet());
-
-                    // If token contains roles, use them; otherwise fallback to userDetails.getAuthorities()
-                    var auth = new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            authorities.isEmpty() ? userDetails.getAuthorities() : authorities
-                    );
-
-                    SecurityContextHolder.getContext().setAuthentication(auth);
-                }
+            if (StringUtils.hasText(token)) {
+                // single parse + signature check; repeated tokens are served from JwtProvider's cache
+                Optional<VerifiedToken> verified = jwtProvider.verify(token);
+                outcome = verified.isPresent() && authenticate(verified.get()) ? "authenticated" : "rejected";
             }
+        } catch (DataAccessException | TransactionException ex) {
+            // database saturated or down: answer 503 like the API does instead of continuing anonymously
+            filterTimers.record("error", start);
+            if (exceptionResolver.resolveException(request, response, null, ex) == null) {
+                throw ex;
+            }
+            return;
         } catch (Exception ex) {
-            // In case of any exception during JWT processing, clear context and continue.
-            SecurityContextHolder.clearContext();
-            // Optionally log the exception (not added here to keep code minimal)
+            // authentication is set only as the last step, so there is nothing of ours to clear; continue anonymously
+            outcome = "error";
         }
+        filterTimers.record(outcome, start);
 
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Populate the SecurityContext from an already verified, not revoked token.
+     * In claims-only mode the principal is built from the token alone, guarded by the
+     * user's security version; otherwise the user is loaded through the UserDetailsService.
+     */
+    private boolean authenticate(VerifiedToken verified) {
+        String username = verified.getSubject();
+        if (username == null || tokenDenylist.isRevoked(verified.getTokenId())) {
+            return false;
+        }
+
+        Set<SimpleGrantedAuthority> authorities = verified.getRoles().stream()
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toSet());
+
+        UserDetails userDetails;
+        if (claimsOnly) {
+            if (!securityVersionRegistry.isCurrent(username, verified.getSecurityVersion())) {
+                // account disabled or roles changed since the token was issued
+                return false;
+            }
+            userDetails = new AuthenticatedUser(verified.getUserId(), username, "", true, authorities,
+                    verified.getSecurityVersion());
+        } else {
+            userDetails = userDetailsService.loadUserByUsername(username);
+            if (!userDetails.isEnabled() || (userDetails instanceof AuthenticatedUser
+                    && ((AuthenticatedUser) userDetails).getSecurityVersion() != verified.getSecurityVersion())) {
+                // all of the user's tokens were revoked (or roles changed) after this one was issued
+                return false;
+            }
+        }
+
+        // If token contains roles, use them; otherwise fallback to userDetails.getAuthorities()
+        var auth = new UsernamePasswordAuthenticationToken(
+                userDetails,
+                null,
+                authorities.isEmpty() ? userDetails.getAuthorities() : authorities
+        );
+
+        // the verified token stays available to handlers such as logout
+        auth.setDetails(verified);
+        SecurityContextHolder.getContext().setAuthentication(auth);
+        return true;
+    }
+
     /**
      * Read the Authorization header and return token without Bearer prefix.
      */
@@ -1,31 +1,71 @@
 package com.somyu.user_service.security;
 
+import com.somyu.user_service.cache.BoundedCache;
 import com.somyu.user_service.config.JwtProperties;
+import com.somyu.user_service.id.UuidV7Generator;
+import com.somyu.user_service.metrics.OutcomeTimers;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
-import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
  * Utility for creating and validating JWT tokens.
- * Uses io.jsonwebtoken (JJWT) 0.11.x APIs.
+ * Uses io.jsonwebtoken (JJWT) 0.11.x APIs; keys come from {@link SigningKeyRing}.
+ * <p>
+ * Verified tokens are cached by SHA-256 digest until they expire, so a bearer token
+ * that is presented repeatedly is parsed and signature-checked only once.
+ * HS256 tokens are minted by {@link Hs256TokenMinter}; RS256 goes through the JJWT builder.
  */
 @Component
 public class JwtProvider {
 
+    static final String ROLES_CLAIM = "roles";
+    static final String SECURITY_VERSION_CLAIM = "sv";
+    static final String USER_ID_CLAIM = "uid";
+
     private final JwtProperties jwtProperties;
-    private final Key signingKey;
+    private final SigningKeyRing keyRing;
+    // JwtParser is immutable and thread-safe; build it once instead of per call
+    private final JwtParser jwtParser;
+    private final BoundedCache<TokenDigest, VerifiedToken> verifiedTokens;
+    // null unless signing with the (fixed) HS256 secret
+    private final Hs256TokenMinter hs256Minter;
+
+    private final OutcomeTimers verifyTimers;
+    private final Timer mintTimer;
 
-    public JwtProvider(JwtProperties jwtProperties) {
+    public JwtProvider(JwtProperties jwtProperties, SigningKeyRing keyRing, MeterRegistry meterRegistry) {
         this.jwtProperties = jwtProperties;
-        // Use secret bytes as signing key; ensure the secret is sufficiently long for HS256
-        byte[] keyBytes = jwtProperties.getSecret().getBytes(StandardCharsets.UTF_8);
-        this.signingKey = Keys.hmacShaKeyFor(keyBytes);
+        this.keyRing = keyRing;
+        // verification key is picked per token from its alg + kid header
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    // JJWT 0.11 declares the raw type; JwsHeader<?> would not override it
+                    @Override
+                    @SuppressWarnings("rawtypes")
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return keyRing.verificationKey(header.getKeyId(), header.getAlgorithm());
+                    }
+                })
+                .build();
+        this.verifiedTokens = new BoundedCache<>(jwtProperties.getVerifiedCacheSize(), 0);
+        this.hs256Minter = keyRing.getAlgorithm() == SignatureAlgorithm.HS256
+                ? new Hs256TokenMinter(keyRing.getActiveKey().getKey())
+                : null;
+
+        this.verifyTimers = new OutcomeTimers(meterRegistry, "auth.token.verify",
+                "Token verification (outcome: cached, success, expired, bad_signature, invalid)");
+        this.mintTimer = Timer.builder("auth.token.mint")
+                .description("Token signing")
+                .register(meterRegistry);
     }
 
     /**
@@ -36,71 +76,165 @@ public class JwtProvider {
      * @return signed JWT token string
      */
     public String generateToken(UserDetails userDetails, Set<String> roles) {
+        long start = System.nanoTime();
         long nowMillis = System.currentTimeMillis();
-        Date now = new Date(nowMillis);
-        Date expiry = new Date(nowMillis + jwtProperties.getExpirationMs());
+        long expiryMillis = nowMillis + jwtProperties.getExpirationMs();
+        UUID tokenId = UuidV7Generator.shared().nextId();
 
-        Map<String, Object> claims = new HashMap<>();
-        // add roles claim as list of strings
-        if (roles != null && !roles.isEmpty()) {
-            claims.put("roles", roles.stream().collect(Collectors.toList()));
+        UUID userId = null;
+        Integer securityVersion = null;
+        if (userDetails instanceof AuthenticatedUser) {
+            AuthenticatedUser user = (AuthenticatedUser) userDetails;
+            userId = user.getId();
+            securityVersion = user.getSecurityVersion();
         }
 
-        return Jwts.builder()
-                .setClaims(claims)
-                .setSubject(userDetails.getUsername())
-                .setIssuedAt(now)
-                .setExpiration(expiry)
-                .signWith(signingKey, SignatureAlgorithm.HS256)
-                .compact();
+        String token;
+        if (hs256Minter != null) {
+            // JWT NumericDate is whole seconds, as the JJWT builder writes it
+            token = hs256Minter.mint(tokenId, userDetails.getUsername(), userId, securityVersion, roles,
+                    nowMillis / 1000, expiryMillis / 1000);
+        } else {
+            token = buildToken(tokenId, userDetails.getUsername(), userId, securityVersion, roles,
+                    nowMillis, expiryMillis);
+        }
+        mintTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return token;
+    }
+
+    /**
+     * Verify a token (signature + expiration) and return its claims in one pass.
+     *
+     * @param token compact JWT string
+     * @return the verified token, or empty if the token is invalid or expired
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        try {
+            return Optional.of(verifyOrThrow(token));
+        } catch (JwtException | IllegalArgumentException ex) {
+            // expired or invalid token
+            return Optional.empty();
+        }
     }
 
     /**
      * Extract username (email) from token.
      */
     public String getUsernameFromToken(String token) {
-        Claims claims = parseClaims(token);
-        return claims.getSubject();
+        return verifyOrThrow(token).getSubject();
     }
 
     /**
      * Extract roles from token as a Set<String>
      */
-    @SuppressWarnings("unchecked")
     public Set<String> getRolesFromToken(String token) {
-        Claims claims = parseClaims(token);
-        Object rolesObj = claims.get("roles");
-        if (rolesObj instanceof Collection) {
-            Collection<?> coll = (Collection<?>) rolesObj;
-            return coll.stream().map(String::valueOf).collect(Collectors.toSet());
-        }
-        return Collections.emptySet();
+        return verifyOrThrow(token).getRoles();
     }
 
     /**
      * Validate token (signature + expiration).
      */
     public boolean validateToken(String token) {
+        return verify(token).isPresent();
+    }
+
+    /**
+     * Return the cached verification for this token or parse it, caching the result
+     * until the token's own expiry.
+     */
+    private VerifiedToken verifyOrThrow(String token) {
+        if (token == null || token.isEmpty()) {
+            throw new IllegalArgumentException("JWT string is empty");
+        }
+        long start = System.nanoTime();
+        TokenDigest digest = TokenDigest.of(token);
+        VerifiedToken cached = verifiedTokens.get(digest);
+        if (cached != null) {
+            verifyTimers.record("cached", start);
+            return cached;
+        }
+
+        VerifiedToken verified;
         try {
-            parseClaims(token);
-            return true;
+            verified = toVerifiedToken(parseClaims(token));
         } catch (ExpiredJwtException ex) {
-            // token expired
-            return false;
+            verifyTimers.record("expired", start);
+            throw ex;
+        } catch (SignatureException ex) {
+            verifyTimers.record("bad_signature", start);
+            throw ex;
         } catch (JwtException | IllegalArgumentException ex) {
-            // invalid token
-            return false;
+            verifyTimers.record("invalid", start);
+            throw ex;
+        }
+        if (verified.getExpiresAt() != null) {
+            verifiedTokens.put(digest, verified, verified.getExpiresAt().toEpochMilli());
+        }
+        verifyTimers.record("success", start);
+        return verified;
+    }
+
+    /**
+     * General path through the JJWT builder, used for RS256 (kid header, rotating keys).
+     * Package-private so tests can compare it with {@link Hs256TokenMinter}.
+     */
+    String buildToken(UUID tokenId, String subject, UUID userId, Integer securityVersion,
+                              Set<String> roles, long nowMillis, long expiryMillis) {
+        Map<String, Object> claims = new HashMap<>();
+        // add roles claim as list of strings
+        if (roles != null && !roles.isEmpty()) {
+            claims.put(ROLES_CLAIM, new ArrayList<>(roles));
+        }
+        if (userId != null) {
+            claims.put(USER_ID_CLAIM, userId.toString());
+        }
+        if (securityVersion != null) {
+            claims.put(SECURITY_VERSION_CLAIM, securityVersion);
+        }
+
+        SigningKeyRing.ActiveKey signingKey = keyRing.getActiveKey();
+        JwtBuilder builder = Jwts.builder();
+        if (signingKey.getKid() != null) {
+            builder.setHeaderParam(JwsHeader.KEY_ID, signingKey.getKid());
+        }
+        return builder
+                .setClaims(claims)
+                .setId(tokenId.toString())
+                .setSubject(subject)
+                .setIssuedAt(new Date(nowMillis))
+                .setExpiration(new Date(expiryMillis))
+                .signWith(signingKey.getKey(), keyRing.getAlgorithm())
+                .compact();
+    }
+
+    private VerifiedToken toVerifiedToken(Claims claims) {
+        Set<String> roles = Collections.emptySet();
+        Object rolesObj = claims.get(ROLES_CLAIM);
+        if (rolesObj instanceof Collection) {
+            Collection<?> coll = (Collection<?>) rolesObj;
+            roles = coll.stream().map(String::valueOf).collect(Collectors.toUnmodifiableSet());
         }
+        // tokens minted before security versions existed count as version 0
+        Integer securityVersion = claims.get(SECURITY_VERSION_CLAIM, Integer.class);
+        String userId = claims.get(USER_ID_CLAIM, String.class);
+        String tokenId = claims.getId();
+        Date issuedAt = claims.getIssuedAt();
+        Date expiration = claims.getExpiration();
+        return new VerifiedToken(
+                tokenId != null ? UUID.fromString(tokenId) : null,
+                claims.getSubject(),
+                userId != null ? UUID.fromString(userId) : null,
+                roles,
+                securityVersion != null ? securityVersion : 0,
+                issuedAt != null ? issuedAt.toInstant() : null,
+                expiration != null ? expiration.toInstant() : null
+        );
     }
 
     /**
      * Internal helper to parse claims and validate signature.
      */
     private Claims parseClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(signingKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return jwtParser.parseClaimsJws(token).getBody();
     }
 }
@@ -0,0 +1,78 @@
+package com.somyu.user_service.security;
+
+import com.somyu.user_service.config.LoginThrottleProperties;
+import com.somyu.user_service.exception.LoginThrottledException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Rate limit for login attempts, checked before any user lookup or password hashing.
+ * <p>
+ * Each attempt takes one token from the client address's bucket, then one from the target
+ * account's bucket. A credential-stuffing burst is cut off either per source or per victim
+ * account, and costs one CAS per bucket. Behind a proxy, set
+ * {@code server.forward-headers-strategy=native} so the real client address is used.
+ */
+@Component
+public class LoginThrottle {
+
+    private final boolean enabled;
+    private final TokenBucketTable byEmail;
+    private final TokenBucketTable byAddress;
+
+    private final Counter throttledEmail;
+    private final Counter throttledAddress;
+
+    public LoginThrottle(LoginThrottleProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.byEmail = new TokenBucketTable(properties.getSlots(), properties.getEmailCapacity(),
+                properties.getEmailRefillPerMinute());
+        this.byAddress = new TokenBucketTable(properties.getSlots(), properties.getIpCapacity(),
+                properties.getIpRefillPerMinute());
+
+        this.throttledEmail = Counter.builder("auth.login.throttled")
+                .description("Login attempts rejected by the rate limit")
+                .tag("scope", "email")
+                .register(meterRegistry);
+        this.throttledAddress = Counter.builder("auth.login.throttled")
+                .description("Login attempts rejected by the rate limit")
+                .tag("scope", "ip")
+                .register(meterRegistry);
+        FunctionCounter.builder("auth.login.throttle.evictions", this,
+                        t -> t.byEmail.evictionCount() + t.byAddress.evictionCount())
+                .description("Partly drained buckets evicted to make room for new keys")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Record a login attempt, or throw {@link LoginThrottledException} if it is over the limit.
+     */
+    public void check(String email, String remoteAddress) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (remoteAddress != null) {
+            long wait = byAddress.tryAcquire(remoteAddress, now);
+            if (wait > 0) {
+                throttledAddress.increment();
+                throw throttled(wait);
+            }
+        }
+        if (email != null) {
+            long wait = byEmail.tryAcquire(email.trim().toLowerCase(Locale.ROOT), now);
+            if (wait > 0) {
+                throttledEmail.increment();
+                throw throttled(wait);
+            }
+        }
+    }
+
+    private static LoginThrottledException throttled(long waitMillis) {
+        return new LoginThrottledException("Too many login attempts, try again later", (waitMillis + 999) / 1000);
+    }
+}
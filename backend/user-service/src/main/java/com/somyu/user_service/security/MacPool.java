@@ -0,0 +1,82 @@
+package com.somyu.user_service.security;
+
+import javax.crypto.Mac;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Initialized {@link Mac} instances for one key, shared across threads.
+ * <p>
+ * A Mac is not thread-safe, and a per-thread instance does not work with virtual threads:
+ * every request runs on a new thread and would pay for the provider lookup and key setup.
+ * New instances are cloned from an initialized prototype instead. At most
+ * {@code maxIdle} are kept for reuse; extra ones created during a burst are dropped on release.
+ */
+public final class MacPool {
+
+    private final String algorithm;
+    private final Key key;
+    private final Mac prototype;
+    private final boolean cloneable;
+    private final BlockingQueue<Mac> idle;
+
+    public MacPool(String algorithm, Key key) {
+        this(algorithm, key, Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    public MacPool(String algorithm, Key key, int maxIdle) {
+        this.algorithm = algorithm;
+        this.key = key;
+        // fail at startup rather than on the first request
+        this.prototype = newMac(algorithm, key);
+        this.cloneable = canClone(prototype);
+        this.idle = new ArrayBlockingQueue<>(Math.max(1, maxIdle));
+    }
+
+    /**
+     * An initialized Mac for this caller alone; hand it back with {@link #release(Mac)}.
+     */
+    public Mac acquire() {
+        Mac mac = idle.poll();
+        return mac != null ? mac : create();
+    }
+
+    /**
+     * Return a Mac after {@code doFinal}, which leaves it reset and ready for the next caller.
+     */
+    public void release(Mac mac) {
+        idle.offer(mac);
+    }
+
+    private Mac create() {
+        if (cloneable) {
+            try {
+                return (Mac) prototype.clone();
+            } catch (CloneNotSupportedException ex) {
+                // checked by canClone
+            }
+        }
+        return newMac(algorithm, key);
+    }
+
+    private static boolean canClone(Mac mac) {
+        try {
+            mac.clone();
+            return true;
+        } catch (CloneNotSupportedException ex) {
+            return false;
+        }
+    }
+
+    private static Mac newMac(String algorithm, Key key) {
+        try {
+            Mac mac = Mac.getInstance(algorithm);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException(algorithm + " is not available for the given key", ex);
+        }
+    }
+}
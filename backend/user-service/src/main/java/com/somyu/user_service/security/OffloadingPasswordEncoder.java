@@ -0,0 +1,130 @@
+package com.somyu.user_service.security;
+
+import com.somyu.user_service.config.PasswordHashingProperties;
+import com.somyu.user_service.exception.PasswordHashingRejectedException;
+import com.somyu.user_service.metrics.OutcomeTimers;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PasswordEncoder that runs the (deliberately slow) delegate on a bounded, CPU-sized pool.
+ * <p>
+ * Hashing no longer competes with every servlet thread for CPU: at most {@code threads}
+ * hashes run at once, a bounded number wait, and anything beyond that fails fast with
+ * {@link PasswordHashingRejectedException} (mapped to 503 + Retry-After).
+ */
+public class OffloadingPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final int retryAfterSeconds;
+
+    private final Timer waitTimer;
+    private final Counter rejections;
+    private final Timer encodeTimer;
+    private final OutcomeTimers verifyTimers;
+
+    public OffloadingPasswordEncoder(PasswordEncoder delegate,
+                                     PasswordHashingProperties properties,
+                                     MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.retryAfterSeconds = properties.getRetryAfterSeconds();
+
+        AtomicInteger threadIds = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                properties.getThreads(),
+                properties.getThreads(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadIds.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.waitTimer = Timer.builder("auth.hashing.queue.wait")
+                .description("Time a hash job waited for a worker")
+                .register(meterRegistry);
+        this.rejections = Counter.builder("auth.hashing.rejected")
+                .description("Hash jobs rejected because the queue was full")
+                .register(meterRegistry);
+        this.encodeTimer = Timer.builder("auth.password.encode")
+                .description("Password hashing, excluding queue wait")
+                .register(meterRegistry);
+        this.verifyTimers = new OutcomeTimers(meterRegistry, "auth.password.verify",
+                "Password verification, excluding queue wait (outcome: match, mismatch)");
+        Gauge.builder("auth.hashing.queue.depth", executor, e -> e.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("auth.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> encodeTimer.recordCallable(() -> delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> {
+            long start = System.nanoTime();
+            boolean matches = delegate.matches(rawPassword, encodedPassword);
+            verifyTimers.record(matches ? "match" : "mismatch", start);
+            return matches;
+        });
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // cheap hash-prefix inspection, no need to offload
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * The wrapped encoder, for batch jobs that bring their own worker threads.
+     */
+    public PasswordEncoder getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private <T> T submit(Callable<T> job) {
+        long enqueuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                return job.call();
+            });
+        } catch (RejectedExecutionException ex) {
+            rejections.increment();
+            throw new PasswordHashingRejectedException("Server is busy, please retry shortly", retryAfterSeconds);
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Password hashing failed", cause);
+        }
+    }
+}
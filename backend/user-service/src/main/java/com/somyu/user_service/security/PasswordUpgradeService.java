@@ -0,0 +1,42 @@
+package com.somyu.user_service.security;
+
+import com.somyu.user_service.event.UserChangedEvent;
+import com.somyu.user_service.repository.UserRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.stereotype.Service;
+
+/**
+ * Persists a re-encoded password after a successful login whose stored hash uses an
+ * outdated algorithm or cost. Invoked by DaoAuthenticationProvider, so users are
+ * migrated transparently without a password reset.
+ */
+@Service
+@Transactional
+public class PasswordUpgradeService implements UserDetailsPasswordService {
+
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public PasswordUpgradeService(UserRepository userRepository,
+                                  ApplicationEventPublisher eventPublisher) {
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePasswordByEmail(user.getUsername(), newPassword);
+
+        if (user instanceof AuthenticatedUser) {
+            AuthenticatedUser current = (AuthenticatedUser) user;
+            eventPublisher.publishEvent(new UserChangedEvent(current.getId(), current.getUsername()));
+            return current.withPassword(newPassword);
+        }
+        eventPublisher.publishEvent(new UserChangedEvent(null, user.getUsername()));
+        return User.withUserDetails(user).password(newPassword).build();
+    }
+}
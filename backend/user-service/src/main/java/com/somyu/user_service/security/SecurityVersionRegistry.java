@@ -0,0 +1,57 @@
+package com.somyu.user_service.security;
+
+import com.somyu.user_service.cache.BoundedCache;
+import com.somyu.user_service.config.JwtProperties;
+import com.somyu.user_service.datasource.ReadYourWrites;
+import com.somyu.user_service.event.UserChangedEvent;
+import com.somyu.user_service.repository.UserRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Small in-memory table of per-user security versions used by claims-only authentication.
+ * <p>
+ * A token is accepted only if the version it carries matches the account's current one;
+ * disabling an account or changing its roles bumps the version and so revokes older tokens.
+ * Versions are read with a single-column query and cached for a short TTL.
+ */
+@Component
+public class SecurityVersionRegistry {
+
+    /** Cached for accounts that are disabled or no longer exist; never matches a token */
+    static final int REVOKED = -1;
+
+    private final UserRepository userRepository;
+    private final ReadYourWrites readYourWrites;
+    private final BoundedCache<String, Integer> versions;
+
+    public SecurityVersionRegistry(UserRepository userRepository, ReadYourWrites readYourWrites,
+                                   JwtProperties jwtProperties) {
+        this.userRepository = userRepository;
+        this.readYourWrites = readYourWrites;
+        this.versions = new BoundedCache<>(jwtProperties.getSecurityVersionCacheSize(),
+                jwtProperties.getSecurityVersionCacheTtlMs());
+    }
+
+    /**
+     * Whether a token issued with the given security version is still valid for this user.
+     */
+    public boolean isCurrent(String email, int tokenVersion) {
+        // a replica must not hand back the version from before a revocation made here
+        int current = versions.get(email, key -> readYourWrites.read(key,
+                () -> userRepository.findSecurityVersionByEmail(key)).orElse(REVOKED));
+        return current != REVOKED && current == tokenVersion;
+    }
+
+    /**
+     * Forget the cached version after the account changed on this instance.
+     */
+    public void invalidate(String email) {
+        versions.invalidate(email);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        invalidate(event.getEmail());
+    }
+}
@@ -0,0 +1,293 @@
+package com.somyu.user_service.security;
+
+import com.somyu.user_service.config.JwtProperties;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.*;
+import java.security.interfaces.RSAPrivateCrtKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.InvalidKeySpecException;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+/**
+ * Keys used to sign and verify access tokens.
+ * <p>
+ * With {@code jwt.algorithm=HS256} (default) tokens are signed with the shared secret.
+ * With {@code RS256}, RSA keys are loaded from {@code jwt.rsa.key-dir}, where the file name is the
+ * {@code kid}:
+ * <ul>
+ *     <li>{@code <kid>.pem}: PKCS#8 private key. The one whose kid sorts last signs new tokens.</li>
+ *     <li>{@code <kid>.pub.pem}: X.509 public key, verify-only.</li>
+ * </ul>
+ * The directory is re-read periodically. To rotate, add a newer key file. Tokens signed with the
+ * previous key keep verifying, and it stays published in the JWKS. Remove it once
+ * {@code jwt.expiration-ms} has passed. Lookup by kid is a single map read on the verify path.
+ * <p>
+ * In RS256 mode HS256 tokens are rejected, unless {@code jwt.accept-hs256-until} is set while
+ * switching over from HS256. Until that instant, tokens signed with the shared secret still verify.
+ */
+@Component
+public class SigningKeyRing {
+
+    private static final Logger log = LoggerFactory.getLogger(SigningKeyRing.class);
+
+    private static final String PRIVATE_SUFFIX = ".pem";
+    private static final String PUBLIC_SUFFIX = ".pub.pem";
+
+    private final SignatureAlgorithm algorithm;
+    private final Key hmacKey;
+    private final Path keyDir;
+    // RS256 only: HS256 tokens still verify before this instant; null = never
+    private final Instant acceptHs256Until;
+
+    private volatile Snapshot snapshot;
+
+    public SigningKeyRing(JwtProperties jwtProperties) {
+        this.algorithm = SignatureAlgorithm.forName(jwtProperties.getAlgorithm());
+        if (algorithm != SignatureAlgorithm.HS256 && algorithm != SignatureAlgorithm.RS256) {
+            throw new IllegalStateException("Unsupported jwt.algorithm " + algorithm + " (use HS256 or RS256)");
+        }
+        // Use secret bytes as HMAC key; ensure the secret is sufficiently long for HS256
+        this.hmacKey = Keys.hmacShaKeyFor(jwtProperties.getSecret().getBytes(StandardCharsets.UTF_8));
+        this.keyDir = StringUtils.hasText(jwtProperties.getRsaKeyDir()) ? Path.of(jwtProperties.getRsaKeyDir()) : null;
+        this.acceptHs256Until = parseInstant(jwtProperties.getAcceptHs256Until());
+        if (algorithm == SignatureAlgorithm.RS256 && acceptHs256Until != null) {
+            log.warn("jwt.accept-hs256-until is set: HS256 tokens are accepted until {}", acceptHs256Until);
+        }
+
+        if (algorithm == SignatureAlgorithm.HS256) {
+            this.snapshot = new Snapshot(new ActiveKey(null, hmacKey), Map.of(), 0);
+        } else if (keyDir == null) {
+            this.snapshot = ephemeral();
+        } else {
+            this.snapshot = load(keyDir, 1);
+        }
+    }
+
+    public SignatureAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Key that signs new tokens, read as one unit so kid and key always match.
+     */
+    public ActiveKey getActiveKey() {
+        return snapshot.active;
+    }
+
+    /**
+     * Key for verifying a token with the given header. HS256 tokens verify against the shared
+     * secret in HS256 mode, and in RS256 mode only before {@code jwt.accept-hs256-until}.
+     */
+    public Key verificationKey(String kid, String alg) {
+        if (SignatureAlgorithm.HS256.getValue().equals(alg)) {
+            if (algorithm == SignatureAlgorithm.HS256
+                    || (acceptHs256Until != null && Instant.now().isBefore(acceptHs256Until))) {
+                return hmacKey;
+            }
+            throw new SignatureException("HS256 tokens are not accepted with jwt.algorithm=" + algorithm.getValue());
+        }
+        RSAPublicKey key = kid != null ? snapshot.publicKeys.get(kid) : null;
+        if (key == null) {
+            throw new SignatureException("Unknown signing key id: " + kid);
+        }
+        return key;
+    }
+
+    /**
+     * Public keys currently published (empty for HS256), by kid.
+     */
+    public Map<String, RSAPublicKey> getPublicKeys() {
+        return snapshot.publicKeys;
+    }
+
+    /**
+     * Incremented whenever the keys change (added, removed or replaced under the same kid); lets callers cache derived data such as the JWKS.
+     */
+    public long getVersion() {
+        return snapshot.version;
+    }
+
+    /**
+     * Re-read the key directory; on any error the current keys stay in place.
+     */
+    @Scheduled(fixedDelayString = "${jwt.rsa.reload-interval-ms:60000}",
+            initialDelayString = "${jwt.rsa.reload-interval-ms:60000}")
+    public void reload() {
+        if (algorithm != SignatureAlgorithm.RS256 || keyDir == null) {
+            return;
+        }
+        Snapshot current = snapshot;
+        try {
+            Snapshot next = load(keyDir, current.version + 1);
+            if (!sameKeys(next, current)) {
+                snapshot = next;
+                log.info("Signing keys reloaded: active kid {}, verifying {}", next.active.kid, next.publicKeys.keySet());
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Reloading signing keys from {} failed, keeping the current keys", keyDir, ex);
+        }
+    }
+
+    /**
+     * Same kids and the same key material behind each, so a key file replaced under its old kid
+     * (a re-issued compromised key, say) is picked up too.
+     */
+    private static boolean sameKeys(Snapshot a, Snapshot b) {
+        if (!Objects.equals(a.active.kid, b.active.kid)
+                || !Arrays.equals(a.active.key.getEncoded(), b.active.key.getEncoded())
+                || !a.publicKeys.keySet().equals(b.publicKeys.keySet())) {
+            return false;
+        }
+        for (Map.Entry<String, RSAPublicKey> entry : a.publicKeys.entrySet()) {
+            if (!Arrays.equals(entry.getValue().getEncoded(), b.publicKeys.get(entry.getKey()).getEncoded())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /* ------------------ Loading ------------------ */
+
+    private static Instant parseInstant(String value) {
+        if (!StringUtils.hasText(value)) {
+            return null;
+        }
+        try {
+            return Instant.parse(value.trim());
+        } catch (DateTimeParseException ex) {
+            throw new IllegalStateException("jwt.accept-hs256-until must be an ISO-8601 instant, e.g. "
+                    + "2025-01-31T00:00:00Z: " + value, ex);
+        }
+    }
+
+    private static Snapshot load(Path dir, long version) {
+        TreeMap<String, PrivateKey> privateKeys = new TreeMap<>();
+        Map<String, RSAPublicKey> publicKeys = new HashMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + PRIVATE_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(PUBLIC_SUFFIX)) {
+                    String kid = name.substring(0, name.length() - PUBLIC_SUFFIX.length());
+                    publicKeys.putIfAbsent(kid, readPublicKey(file));
+                } else {
+                    String kid = name.substring(0, name.length() - PRIVATE_SUFFIX.length());
+                    RSAPrivateCrtKey privateKey = readPrivateKey(file);
+                    privateKeys.put(kid, privateKey);
+                    publicKeys.put(kid, publicKeyOf(privateKey));
+                }
+            }
+        } catch (IOException ex) {
+            throw new IllegalStateException("Cannot read signing keys from " + dir, ex);
+        }
+        if (privateKeys.isEmpty()) {
+            throw new IllegalStateException("No RSA private key (<kid>.pem) found in " + dir);
+        }
+        Map.Entry<String, PrivateKey> active = privateKeys.lastEntry();
+        return new Snapshot(new ActiveKey(active.getKey(), active.getValue()), Map.copyOf(publicKeys), version);
+    }
+
+    private static Snapshot ephemeral() {
+        log.warn("jwt.algorithm=RS256 without jwt.rsa.key-dir: using an in-memory key pair. "
+                + "Tokens will not survive a restart or verify on other instances.");
+        KeyPair pair = Keys.keyPairFor(SignatureAlgorithm.RS256);
+        String kid = "ephemeral-" + Long.toString(System.currentTimeMillis(), 36);
+        return new Snapshot(new ActiveKey(kid, pair.getPrivate()), Map.of(kid, (RSAPublicKey) pair.getPublic()), 1);
+    }
+
+    private static RSAPrivateCrtKey readPrivateKey(Path file) {
+        try {
+            return (RSAPrivateCrtKey) rsa().generatePrivate(new PKCS8EncodedKeySpec(pemBody(file)));
+        } catch (InvalidKeySpecException | ClassCastException ex) {
+            throw new IllegalStateException("Not a PKCS#8 RSA private key: " + file, ex);
+        }
+    }
+
+    private static RSAPublicKey readPublicKey(Path file) {
+        try {
+            return (RSAPublicKey) rsa().generatePublic(new X509EncodedKeySpec(pemBody(file)));
+        } catch (InvalidKeySpecException | ClassCastException ex) {
+            throw new IllegalStateException("Not an X.509 RSA public key: " + file, ex);
+        }
+    }
+
+    private static RSAPublicKey publicKeyOf(RSAPrivateCrtKey privateKey) {
+        try {
+            return (RSAPublicKey) rsa().generatePublic(
+                    new RSAPublicKeySpec(privateKey.getModulus(), privateKey.getPublicExponent()));
+        } catch (InvalidKeySpecException ex) {
+            throw new IllegalStateException("Cannot derive RSA public key", ex);
+        }
+    }
+
+    private static byte[] pemBody(Path file) {
+        try {
+            String pem = Files.readString(file, StandardCharsets.US_ASCII);
+            String base64 = pem.replaceAll("-----(BEGIN|END) [A-Z ]+-----", "").replaceAll("\\s", "");
+            return Base64.getDecoder().decode(base64);
+        } catch (IOException | IllegalArgumentException ex) {
+            throw new IllegalStateException("Cannot read PEM file " + file, ex);
+        }
+    }
+
+    private static KeyFactory rsa() {
+        try {
+            return KeyFactory.getInstance("RSA");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("RSA not available", ex);
+        }
+    }
+
+    /**
+     * Signing key and its kid (null for HS256).
+     */
+    public static final class ActiveKey {
+        private final String kid;
+        private final Key key;
+
+        ActiveKey(String kid, Key key) {
+            this.kid = kid;
+            this.key = key;
+        }
+
+        public String getKid() {
+            return kid;
+        }
+
+        public Key getKey() {
+            return key;
+        }
+    }
+
+    /**
+     * Immutable key set, swapped as a whole on reload.
+     */
+    private static final class Snapshot {
+        final ActiveKey active;
+        final Map<String, RSAPublicKey> publicKeys;
+        final long version;
+
+        Snapshot(ActiveKey active, Map<String, RSAPublicKey> publicKeys, long version) {
+            this.active = active;
+            this.publicKeys = publicKeys;
+            this.version = version;
+        }
+    }
+}
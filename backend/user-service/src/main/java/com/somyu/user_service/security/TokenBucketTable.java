@@ -0,0 +1,197 @@
+package com.somyu.user_service.security;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size, lock-free table of token buckets keyed by string.
+ * <p>
+ * Each bucket is packed into one {@code long} and updated with a single CAS:
+ * <pre>
+ *   63..48  key fingerprint (0 = empty slot)
+ *   47..16  time of last refill, low 32 bits of epoch millis
+ *   15..0   tokens, fixed point with 8 fractional bits (so capacity is at most 255)
+ * </pre>
+ * Keys map to a set of 4 adjacent slots. A new key takes an empty slot or an idle one: a
+ * bucket that has refilled to capacity holds no state worth keeping. Failing that, it
+ * evicts the least recently refilled bucket. The table never grows, and there is no
+ * sweeper; idle buckets are reclaimed as new keys arrive. Two keys sharing a fingerprint
+ * in one set share a bucket, which errs on the strict side. Keys are hashed over all their
+ * chars with a random per-table seed, so colliding keys cannot be picked in advance to drain
+ * someone else's bucket.
+ */
+public class TokenBucketTable {
+
+    private static final int WAYS = 4;
+    private static final int FRACTION_BITS = 8;
+    private static final int ONE = 1 << FRACTION_BITS;
+    private static final int MAX_TOKENS = 0xFFFF;
+
+    private final AtomicLongArray slots;
+    private final int setMask;
+    private final int capacity;        // fixed point
+    private final long refillPerMinute;
+    private final long seed;
+
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param slots           total buckets (rounded up to a power of two, at least 4)
+     * @param capacity        burst size in whole tokens (1..255)
+     * @param refillPerMinute tokens added per minute
+     */
+    public TokenBucketTable(int slots, int capacity, int refillPerMinute) {
+        this(slots, capacity, refillPerMinute, ThreadLocalRandom.current().nextLong());
+    }
+
+    TokenBucketTable(int slots, int capacity, int refillPerMinute, long seed) {
+        if (capacity < 1 || capacity * ONE > MAX_TOKENS) {
+            throw new IllegalArgumentException("capacity must be between 1 and " + (MAX_TOKENS / ONE));
+        }
+        if (refillPerMinute < 1) {
+            throw new IllegalArgumentException("refillPerMinute must be positive");
+        }
+        int size = Math.max(WAYS, Integer.highestOneBit(Math.max(1, slots - 1)) << 1);
+        this.slots = new AtomicLongArray(size);
+        this.setMask = (size - 1) & ~(WAYS - 1);
+        this.capacity = capacity * ONE;
+        this.refillPerMinute = refillPerMinute;
+        this.seed = seed;
+    }
+
+    /**
+     * Take one token for the key.
+     *
+     * @return 0 if allowed, otherwise milliseconds until a token will be available
+     */
+    public long tryAcquire(String key, long nowMillis) {
+        long h = hash(key);
+        int fingerprint = (int) (h >>> 48);
+        if (fingerprint == 0) {
+            fingerprint = 1;
+        }
+        int set = (int) h & setMask;
+        int now = (int) nowMillis;
+
+        while (true) {
+            int victim = -1;
+            long victimState = 0;
+            long victimAge = -1;
+            boolean victimReusable = false;
+
+            for (int i = set; i < set + WAYS; i++) {
+                long state = slots.get(i);
+                if (state == 0) {
+                    if (!victimReusable) {
+                        victim = i;
+                        victimState = 0;
+                        victimReusable = true;
+                    }
+                    continue;
+                }
+                int tokens = refilled(state, now);
+                if (fingerprintOf(state) == fingerprint) {
+                    if (tokens < ONE) {
+                        return waitMillis(ONE - tokens);
+                    }
+                    if (slots.compareAndSet(i, state, pack(fingerprint, now, tokens - ONE))) {
+                        return 0;
+                    }
+                    victim = -2;    // lost a race on our own bucket; rescan
+                    break;
+                }
+                if (!victimReusable) {
+                    long age = Integer.toUnsignedLong(now - timeOf(state));
+                    if (tokens >= capacity) {
+                        victim = i;
+                        victimState = state;
+                        victimReusable = true;
+                    } else if (age > victimAge) {
+                        victim = i;
+                        victimState = state;
+                        victimAge = age;
+                    }
+                }
+            }
+            if (victim == -2) {
+                continue;
+            }
+
+            if (slots.compareAndSet(victim, victimState, pack(fingerprint, now, capacity - ONE))) {
+                if (!victimReusable) {
+                    evictions.increment();
+                }
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Buckets evicted while still partly drained (table too small for the key churn).
+     */
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    private int refilled(long state, int now) {
+        long elapsed = Integer.toUnsignedLong(now - timeOf(state));
+        long added = elapsed * refillPerMinute * ONE / 60_000L;
+        return (int) Math.min(capacity, tokensOf(state) + added);
+    }
+
+    private long waitMillis(int missing) {
+        long perMinute = refillPerMinute * ONE;
+        return Math.max(1, (missing * 60_000L + perMinute - 1) / perMinute);
+    }
+
+    private static long pack(int fingerprint, int time, int tokens) {
+        return ((long) fingerprint << 48) | ((time & 0xFFFFFFFFL) << 16) | tokens;
+    }
+
+    private static int fingerprintOf(long state) {
+        return (int) (state >>> 48);
+    }
+
+    private static int timeOf(long state) {
+        return (int) (state >>> 16);
+    }
+
+    private static int tokensOf(long state) {
+        return (int) (state & 0xFFFF);
+    }
+
+    /**
+     * Seeded 64-bit hash of every char of the key, four chars per round. Unlike
+     * {@link String#hashCode()}, which has trivial collisions ("Aa", "BB"), two keys only
+     * collide for a given seed.
+     */
+    long hash(String key) {
+        int length = key.length();
+        long h = seed ^ length;
+        int i = 0;
+        for (; i + 4 <= length; i += 4) {
+            h = mix(h ^ (key.charAt(i)
+                    | (long) key.charAt(i + 1) << 16
+                    | (long) key.charAt(i + 2) << 32
+                    | (long) key.charAt(i + 3) << 48));
+        }
+        long tail = 0;
+        for (int shift = 0; i < length; i++, shift += 16) {
+            tail |= (long) key.charAt(i) << shift;
+        }
+        return mix(h ^ tail);
+    }
+
+    /**
+     * MurmurHash3 fmix64 finalizer.
+     */
+    private static long mix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
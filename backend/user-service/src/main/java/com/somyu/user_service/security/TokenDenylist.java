@@ -0,0 +1,86 @@
+package com.somyu.user_service.security;
+
+import com.somyu.user_service.config.RevocationProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory set of revoked access-token ids, each kept only until the token itself expires.
+ * <p>
+ * The check on the request path is one hash lookup with no locking and no database access.
+ * The set is capped at {@code auth.revocation.max-entries}. When it is full, {@link #add}
+ * refuses the entry, and the caller revokes all of the user's tokens with a security-version
+ * bump instead, so memory stays bounded however many tokens are revoked.
+ */
+@Component
+public class TokenDenylist {
+
+    private final ConcurrentHashMap<UUID, Long> revoked = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final int maxEntries;
+
+    public TokenDenylist(RevocationProperties properties, MeterRegistry meterRegistry) {
+        this.maxEntries = properties.getMaxEntries();
+        Gauge.builder("auth.revocation.denylist.size", size, AtomicInteger::get)
+                .description("Revoked access tokens held in memory")
+                .register(meterRegistry);
+    }
+
+    public boolean isRevoked(UUID tokenId) {
+        if (tokenId == null) {
+            return false;
+        }
+        Long expiresAt = revoked.get(tokenId);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    /**
+     * Deny a token until its expiry. Returns true if the token is denied, including when it
+     * already was; false, without adding, when the list is full even after dropping expired entries.
+     */
+    public boolean add(UUID tokenId, long expiresAtMillis) {
+        if (expiresAtMillis <= System.currentTimeMillis()) {
+            // already unusable
+            return true;
+        }
+        // already listed (e.g. seen again by an overlapping sync): needs no new slot, even when full
+        if (revoked.computeIfPresent(tokenId, (id, current) -> Math.max(current, expiresAtMillis)) != null) {
+            return true;
+        }
+        if (size.get() >= maxEntries) {
+            purgeExpired();
+        }
+        // reserve a slot first so concurrent adds cannot overshoot the cap
+        if (size.incrementAndGet() > maxEntries) {
+            size.decrementAndGet();
+            return false;
+        }
+        if (revoked.put(tokenId, expiresAtMillis) != null) {
+            size.decrementAndGet();
+        }
+        return true;
+    }
+
+    /**
+     * Drop entries whose tokens have expired.
+     */
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        revoked.entrySet().removeIf(e -> {
+            if (e.getValue() <= now) {
+                size.decrementAndGet();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    public int size() {
+        return size.get();
+    }
+}
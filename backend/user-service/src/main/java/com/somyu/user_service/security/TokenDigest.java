@@ -0,0 +1,50 @@
+package com.somyu.user_service.security;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * SHA-256 of a token, used as cache key so raw tokens are never retained in memory.
+ */
+final class TokenDigest {
+    private final long a;
+    private final long b;
+    private final long c;
+    private final long d;
+
+    private TokenDigest(long a, long b, long c, long d) {
+        this.a = a;
+        this.b = b;
+        this.c = c;
+        this.d = d;
+    }
+
+    static TokenDigest of(String token) {
+        ByteBuffer buf = ByteBuffer.wrap(sha256().digest(token.getBytes(StandardCharsets.US_ASCII)));
+        return new TokenDigest(buf.getLong(), buf.getLong(), buf.getLong(), buf.getLong());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TokenDigest)) return false;
+        TokenDigest other = (TokenDigest) o;
+        return a == other.a && b == other.b && c == other.c && d == other.d;
+    }
+
+    @Override
+    public int hashCode() {
+        // digest bits are already uniformly distributed
+        return (int) (a ^ (a >>> 32));
+    }
+}
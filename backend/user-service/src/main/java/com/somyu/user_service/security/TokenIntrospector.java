@@ -0,0 +1,109 @@
+package com.somyu.user_service.security;
+
+import com.somyu.user_service.cache.BoundedCache;
+import com.somyu.user_service.config.IntrospectionProperties;
+import com.somyu.user_service.dto.IntrospectionResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Batch token introspection for internal services.
+ * <p>
+ * A token counts as active only if it verifies, is not on the denylist and its security
+ * version is still current.
+ * Repeated tokens in one batch are evaluated once. Results are cached by token digest for a
+ * short TTL, and that TTL is the longest a caller can keep seeing a token that has just been
+ * revoked.
+ */
+@Component
+public class TokenIntrospector {
+
+    private final JwtProvider jwtProvider;
+    private final SecurityVersionRegistry securityVersionRegistry;
+    private final TokenDenylist tokenDenylist;
+    private final BoundedCache<TokenDigest, IntrospectionResult> results;
+    private final long cacheTtlMs;
+
+    private final DistributionSummary batchSize;
+    private final Counter distinctTokens;
+
+    public TokenIntrospector(JwtProvider jwtProvider,
+                             SecurityVersionRegistry securityVersionRegistry,
+                             TokenDenylist tokenDenylist,
+                             IntrospectionProperties properties,
+                             MeterRegistry meterRegistry) {
+        this.jwtProvider = jwtProvider;
+        this.securityVersionRegistry = securityVersionRegistry;
+        this.tokenDenylist = tokenDenylist;
+        this.results = new BoundedCache<>(properties.getCacheSize(), properties.getCacheTtlMs());
+        this.cacheTtlMs = properties.getCacheTtlMs();
+
+        this.batchSize = DistributionSummary.builder("auth.introspect.batch.size")
+                .description("Tokens per introspection request")
+                .register(meterRegistry);
+        this.distinctTokens = Counter.builder("auth.introspect.tokens")
+                .description("Distinct tokens introspected (after in-batch de-duplication)")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Introspect every token; the result list has the same order and size as the input.
+     */
+    public List<IntrospectionResult> introspect(List<String> tokens) {
+        batchSize.record(tokens.size());
+        Map<String, IntrospectionResult> seen = new HashMap<>(tokens.size() * 2);
+        List<IntrospectionResult> out = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            out.add(seen.computeIfAbsent(token, this::introspectOne));
+        }
+        distinctTokens.increment(seen.size());
+        return out;
+    }
+
+    private IntrospectionResult introspectOne(String token) {
+        TokenDigest digest = TokenDigest.of(token);
+        IntrospectionResult result = results.get(digest);
+        if (result == null) {
+            result = evaluate(token);
+            // an active result must not outlive the token itself
+            long expiresAt = System.currentTimeMillis() + cacheTtlMs;
+            if (result.getExpiresAt() != null) {
+                expiresAt = Math.min(expiresAt, result.getExpiresAt().toEpochMilli());
+            }
+            results.put(digest, result, expiresAt);
+        }
+        return result;
+    }
+
+    private IntrospectionResult evaluate(String token) {
+        Optional<VerifiedToken> verified = jwtProvider.verify(token);
+        if (verified.isEmpty()) {
+            return inactive();
+        }
+        VerifiedToken t = verified.get();
+        if (t.getSubject() == null || tokenDenylist.isRevoked(t.getTokenId())
+                || !securityVersionRegistry.isCurrent(t.getSubject(), t.getSecurityVersion())) {
+            return inactive();
+        }
+        return IntrospectionResult.builder()
+                .active(true)
+                .subject(t.getSubject())
+                .userId(t.getUserId())
+                .roles(t.getRoles())
+                .issuedAt(t.getIssuedAt())
+                .expiresAt(t.getExpiresAt())
+                .build();
+    }
+
+    private static IntrospectionResult inactive() {
+        return IntrospectionResult.builder().active(false).build();
+    }
+}
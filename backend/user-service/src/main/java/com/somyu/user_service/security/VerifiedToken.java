@@ -0,0 +1,23 @@
+package com.somyu.user_service.security;
+
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Immutable result of a successful JWT verification (signature + expiration).
+ * Produced once per token by {@link JwtProvider#verify(String)}.
+ */
+@Value
+public class VerifiedToken {
+    // jti; null for tokens issued before token ids existed
+    UUID tokenId;
+    String subject;
+    UUID userId;
+    Set<String> roles;
+    int securityVersion;
+    Instant issuedAt;
+    Instant expiresAt;
+}
@@ -0,0 +1,312 @@
+package com.somyu.user_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.somyu.user_service.config.BulkImportProperties;
+import com.somyu.user_service.dto.ImportRowResult;
+import com.somyu.user_service.dto.RegisterRequest;
+import com.somyu.user_service.entity.Role;
+import com.somyu.user_service.event.UserChangedEvent;
+import com.somyu.user_service.id.IdGenerator;
+import com.somyu.user_service.security.OffloadingPasswordEncoder;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Streaming bulk import of users (admin only).
+ * <p>
+ * Input is read line by line and never buffered as a whole. Valid rows are grouped into
+ * chunks; each chunk's passwords are hashed in parallel on a dedicated pool and the rows
+ * are written with one JDBC batch insert per chunk and transaction. A result line per input row is
+ * written to the output as soon as its chunk completes.
+ */
+@Service
+public class BulkUserImportService implements DisposableBean {
+
+    public enum Format { CSV, NDJSON }
+
+    private static final String INSERT_USER =
+            "INSERT INTO users (id, full_name, email, password, enabled, security_version, roles_mask, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, true, 0, ?, ?, ?) ON CONFLICT (email) DO NOTHING";
+    private static final int DEFAULT_ROLES_MASK = Role.ROLE_USER.getBit();
+
+    private static final List<String> DEFAULT_COLUMNS = List.of("fullname", "email", "password");
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final IdGenerator idGenerator;
+    private final int chunkSize;
+    private final ExecutorService hashPool;
+
+    public BulkUserImportService(JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 OffloadingPasswordEncoder passwordEncoder,
+                                 Validator validator,
+                                 ObjectMapper objectMapper,
+                                 ApplicationEventPublisher eventPublisher,
+                                 IdGenerator idGenerator,
+                                 BulkImportProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        // hash on our own pool rather than through the request-facing admission queue
+        this.passwordEncoder = passwordEncoder.getDelegate();
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.idGenerator = idGenerator;
+        this.chunkSize = properties.getChunkSize();
+        AtomicInteger threadIds = new AtomicInteger();
+        this.hashPool = Executors.newFixedThreadPool(properties.getHashThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "bulk-import-hash-" + threadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Import users from the input stream and write one NDJSON result line per row to the output.
+     */
+    public void importUsers(InputStream in, Format format, OutputStream out) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+        List<String> columns = DEFAULT_COLUMNS;
+        List<PendingRow> chunk = new ArrayList<>(chunkSize);
+        List<ImportRowResult> results = new ArrayList<>(chunkSize);
+        String line;
+        long lineNo = 0;
+
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            if (lineNo == 1 && !line.isEmpty() && line.charAt(0) == BYTE_ORDER_MARK) {
+                // spreadsheet exports often start with a UTF-8 BOM
+                line = line.substring(1);
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == Format.CSV && lineNo == 1) {
+                List<String> cells = parseCsvLine(line).stream()
+                        .map(c -> c.trim().toLowerCase(Locale.ROOT))
+                        .collect(Collectors.toList());
+                if (isCsvHeader(cells)) {
+                    columns = cells;
+                    continue;
+                }
+            }
+
+            PendingRow row = toPendingRow(lineNo, line, format, columns, results);
+            if (row != null) {
+                chunk.add(row);
+            }
+
+            // results are written in input order, so a partial chunk is drained along with them
+            if (chunk.size() >= chunkSize || results.size() >= chunkSize) {
+                drain(chunk, results, writer);
+            }
+        }
+
+        drain(chunk, results, writer);
+    }
+
+    @Override
+    public void destroy() {
+        hashPool.shutdownNow();
+    }
+
+    /* ------------------ Helpers ------------------ */
+
+    /**
+     * Parse and validate one input line; invalid rows are recorded in results and yield null.
+     */
+    private PendingRow toPendingRow(long lineNo, String line, Format format, List<String> columns,
+                                    List<ImportRowResult> results) {
+        RegisterRequest request;
+        try {
+            request = format == Format.CSV ? fromCsv(line, columns) : objectMapper.readValue(line, RegisterRequest.class);
+        } catch (JsonProcessingException | IllegalArgumentException ex) {
+            results.add(invalid(lineNo, null, List.of("Unparseable row")));
+            return null;
+        }
+
+        Set<ConstraintViolation<RegisterRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            results.add(invalid(lineNo, request.getEmail(), violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .collect(Collectors.toList())));
+            return null;
+        }
+        return new PendingRow(lineNo, idGenerator.nextId(), request);
+    }
+
+    private void drain(List<PendingRow> chunk, List<ImportRowResult> results, Writer writer) throws IOException {
+        if (!chunk.isEmpty()) {
+            results.addAll(writeChunk(chunk));
+            chunk.clear();
+        }
+        flush(results, writer);
+    }
+
+    private List<ImportRowResult> writeChunk(List<PendingRow> rows) {
+        hashPasswords(rows);
+
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> userArgs = new ArrayList<>(rows.size());
+        for (PendingRow row : rows) {
+            userArgs.add(new Object[]{row.id, row.fullName, row.email, row.passwordHash, DEFAULT_ROLES_MASK, now, now});
+        }
+
+        return transactionTemplate.execute(status -> {
+            int[] inserted = jdbcTemplate.batchUpdate(INSERT_USER, userArgs);
+
+            List<ImportRowResult> results = new ArrayList<>(rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                PendingRow row = rows.get(i);
+                // relies on per-row update counts: 0 means ON CONFLICT skipped an existing email
+                // (keep the driver's reWriteBatchedInserts off, it reports SUCCESS_NO_INFO instead)
+                boolean created = inserted[i] > 0;
+                if (created) {
+                    eventPublisher.publishEvent(UserChangedEvent.registered(row.id, row.email));
+                }
+                results.add(ImportRowResult.builder()
+                        .line(row.line)
+                        .email(row.email)
+                        .status(created ? ImportRowResult.Status.CREATED : ImportRowResult.Status.DUPLICATE)
+                        .id(created ? row.id : null)
+                        .build());
+            }
+            return results;
+        });
+    }
+
+    private void hashPasswords(List<PendingRow> rows) {
+        List<Future<?>> futures = new ArrayList<>(rows.size());
+        for (PendingRow row : rows) {
+            futures.add(hashPool.submit(() -> row.passwordHash = passwordEncoder.encode(row.password)));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException ex) {
+            futures.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing passwords", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Password hashing failed", ex.getCause());
+        }
+    }
+
+    private void flush(List<ImportRowResult> results, Writer writer) throws IOException {
+        results.sort(Comparator.comparingLong(ImportRowResult::getLine));
+        for (ImportRowResult result : results) {
+            writer.write(objectMapper.writeValueAsString(result));
+            writer.write('\n');
+        }
+        writer.flush();
+        results.clear();
+    }
+
+    private static ImportRowResult invalid(long line, String email, List<String> errors) {
+        return ImportRowResult.builder()
+                .line(line)
+                .email(email)
+                .status(ImportRowResult.Status.INVALID)
+                .errors(errors)
+                .build();
+    }
+
+    /**
+     * A header names the columns exactly; a data row like {@code Bob,bob@email.com,password1} does not.
+     */
+    private static boolean isCsvHeader(List<String> cells) {
+        return cells.contains("email") && cells.contains("password");
+    }
+
+    private static RegisterRequest fromCsv(String line, List<String> columns) {
+        List<String> values = parseCsvLine(line);
+        if (values.size() != columns.size()) {
+            throw new IllegalArgumentException("Expected " + columns.size() + " columns");
+        }
+        RegisterRequest request = new RegisterRequest();
+        for (int i = 0; i < columns.size(); i++) {
+            switch (columns.get(i)) {
+                case "fullname", "full_name" -> request.setFullName(values.get(i));
+                case "email" -> request.setEmail(values.get(i));
+                case "password" -> request.setPassword(values.get(i));
+                default -> { /* ignore unknown columns */ }
+            }
+        }
+        return request;
+    }
+
+    /**
+     * Split one RFC 4180 CSV line (quoted fields, "" escapes; no embedded newlines).
+     */
+    private static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>(3);
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private static final class PendingRow {
+        final long line;
+        final UUID id;
+        final String fullName;
+        final String email;
+        final String password;
+        volatile String passwordHash;
+
+        PendingRow(long line, UUID id, RegisterRequest request) {
+            this.line = line;
+            this.id = id;
+            this.fullName = request.getFullName().trim();
+            this.email = request.getEmail().toLowerCase().trim();
+            this.password = request.getPassword();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.somyu.user_service.service;
+
+import com.somyu.user_service.cache.BloomFilter;
+import com.somyu.user_service.config.EmailFilterProperties;
+import com.somyu.user_service.event.UserChangedEvent;
+import com.somyu.user_service.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Answers "is this email already registered?" with a Bloom filter in front of the email index.
+ * <p>
+ * A definite miss in the filter skips the database; a possible hit falls through to
+ * {@code existsByEmail}. The filter is loaded by streaming the users table at startup,
+ * updated after every successful registration on this instance, and rebuilt periodically
+ * to pick up registrations made on other instances and to shed deleted emails.
+ * <p>
+ * The answer is best-effort: an email registered on another instance since the last rebuild
+ * is reported available for up to {@code email-filter.rebuild-interval-ms}. "Taken" is always
+ * accurate. Registration never relies on this check; the unique index is the source of truth.
+ */
+@Service
+public class EmailAvailabilityService {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailAvailabilityService.class);
+
+    private static final int FETCH_SIZE = 5000;
+    private static final double HEADROOM = 1.5;
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final EmailFilterProperties properties;
+
+    // null until the first load completes; until then every check goes to the database
+    private volatile BloomFilter filter;
+    // filter being rebuilt, so registrations during the rebuild are not lost
+    private volatile BloomFilter building;
+
+    private final AtomicLong loadedEmails = new AtomicLong();
+    private final Counter skippedLookups;
+    private final Counter databaseLookups;
+
+    public EmailAvailabilityService(UserRepository userRepository,
+                                    JdbcTemplate jdbcTemplate,
+                                    TransactionTemplate transactionTemplate,
+                                    EmailFilterProperties properties,
+                                    MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+        this.properties = properties;
+
+        this.skippedLookups = Counter.builder("email.filter.lookups")
+                .tag("result", "definite_miss")
+                .register(meterRegistry);
+        this.databaseLookups = Counter.builder("email.filter.lookups")
+                .tag("result", "database")
+                .register(meterRegistry);
+        Gauge.builder("email.filter.memory", this, s -> s.filter != null ? s.filter.sizeInBytes() : 0)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("email.filter.entries", loadedEmails, AtomicLong::get)
+                .register(meterRegistry);
+    }
+
+    public boolean isAvailable(String email) {
+        String normalized = normalize(email);
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(normalized)) {
+            skippedLookups.increment();
+            return true;
+        }
+        databaseLookups.increment();
+        return !userRepository.existsByEmail(normalized);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        rebuild();
+    }
+
+    /**
+     * Rebuild from the users table; the new filter replaces the old one atomically.
+     */
+    @Scheduled(fixedDelayString = "${email-filter.rebuild-interval-ms:21600000}",
+            initialDelayString = "${email-filter.rebuild-interval-ms:21600000}")
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        try {
+            Long rows = jdbcTemplate.queryForObject("SELECT count(*) FROM users", Long.class);
+            long expected = Math.max(properties.getExpectedInsertions(), (long) ((rows != null ? rows : 0) * HEADROOM));
+            BloomFilter next = BloomFilter.create(expected, properties.getFalsePositiveRate());
+            building = next;
+
+            AtomicLong count = new AtomicLong();
+            // a cursor needs a transaction in PostgreSQL, otherwise the driver buffers every row
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+                var ps = con.prepareStatement("SELECT email FROM users");
+                ps.setFetchSize(FETCH_SIZE);
+                return ps;
+            }, rs -> {
+                next.put(normalize(rs.getString(1)));
+                count.incrementAndGet();
+            }));
+
+            filter = next;
+            loadedEmails.set(count.get());
+            log.info("Email filter rebuilt: {} emails, {} KiB, {} hash functions, in {} ms",
+                    count.get(), next.sizeInBytes() / 1024, next.hashCount(), System.currentTimeMillis() - started);
+        } catch (RuntimeException ex) {
+            log.warn("Email filter rebuild failed, keeping the previous filter", ex);
+        } finally {
+            building = null;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        String email = normalize(event.getEmail());
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(email);
+        }
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(email);
+        }
+        // other changes concern emails the filter already counts
+        if (event.isRegistration()) {
+            loadedEmails.incrementAndGet();
+        }
+    }
+
+    private static String normalize(String email) {
+        return email.toLowerCase().trim();
+    }
+}
@@ -0,0 +1,180 @@
+package com.somyu.user_service.service;
+
+import com.somyu.user_service.config.LegacyRoleMigration;
+import com.somyu.user_service.config.RefreshTokenProperties;
+import com.somyu.user_service.entity.RefreshToken;
+import com.somyu.user_service.exception.InvalidRefreshTokenException;
+import com.somyu.user_service.id.IdGenerator;
+import com.somyu.user_service.repository.RefreshTokenRepository;
+import com.somyu.user_service.repository.UserAuthView;
+import com.somyu.user_service.repository.UserRepository;
+import com.somyu.user_service.security.AuthenticatedUser;
+import com.somyu.user_service.security.MacPool;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque refresh tokens with rotation and reuse detection.
+ * <p>
+ * A refresh token is 256 random bits. Only its HMAC-SHA256 is stored, so a refresh costs
+ * one indexed lookup and one HMAC, with no BCrypt. Each exchange marks the token replaced
+ * and issues a successor in the same family. If a replaced token is presented again, it was
+ * leaked or replayed, and the whole family is revoked.
+ */
+@Service
+@Transactional(dontRollbackOn = InvalidRefreshTokenException.class)
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final int TOKEN_BYTES = 32;
+    private static final String HMAC = "HmacSHA256";
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final IdGenerator idGenerator;
+    private final LegacyRoleMigration legacyRoleMigration;
+    private final long ttlMs;
+    private final SecureRandom random = new SecureRandom();
+    private final MacPool macs;
+
+    private final Counter reuseDetected;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               UserRepository userRepository,
+                               IdGenerator idGenerator,
+                               LegacyRoleMigration legacyRoleMigration,
+                               RefreshTokenProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.idGenerator = idGenerator;
+        this.legacyRoleMigration = legacyRoleMigration;
+        this.ttlMs = properties.getTtlMs();
+        this.macs = new MacPool(HMAC, new SecretKeySpec(properties.getSecret().getBytes(StandardCharsets.UTF_8), HMAC));
+        this.reuseDetected = Counter.builder("auth.refresh.reuse")
+                .description("Refresh tokens presented after they were already exchanged (family revoked)")
+                .register(meterRegistry);
+    }
+
+    public long getTtlMs() {
+        return ttlMs;
+    }
+
+    /**
+     * Start a new token family for a freshly logged-in user.
+     */
+    public String issue(AuthenticatedUser user) {
+        return issue(user.getId(), user.getSecurityVersion(), idGenerator.nextId());
+    }
+
+    /**
+     * Exchange a refresh token for a successor and return it with the user it belongs to.
+     */
+    public Rotation rotate(String token) {
+        RefreshToken current = refreshTokenRepository.findByTokenHash(hash(token))
+                .orElseThrow(() -> new InvalidRefreshTokenException("Invalid refresh token"));
+        Instant now = Instant.now();
+        if (current.isRevoked() || !current.getExpiresAt().isAfter(now)) {
+            throw new InvalidRefreshTokenException("Refresh token expired or revoked");
+        }
+
+        if (refreshTokenRepository.markReplaced(current.getId(), now) == 0) {
+            // already exchanged once: whoever holds this family is not the legitimate client alone
+            refreshTokenRepository.revokeFamily(current.getFamilyId());
+            reuseDetected.increment();
+            log.warn("Refresh token reuse for user {}, family {} revoked", current.getUserId(), current.getFamilyId());
+            throw new InvalidRefreshTokenException("Refresh token already used");
+        }
+
+        UserAuthView user = userRepository.findAuthViewById(current.getUserId()).orElse(null);
+        if (user == null || !user.enabled() || user.securityVersion() != current.getSecurityVersion()) {
+            // account disabled, deleted, or its password/roles changed since login
+            refreshTokenRepository.revokeFamily(current.getFamilyId());
+            throw new InvalidRefreshTokenException("Refresh token no longer valid");
+        }
+
+        String next = issue(user.id(), user.securityVersion(), current.getFamilyId());
+        return new Rotation(AuthenticatedUser.of(legacyRoleMigration.withLegacyRoles(user)), next);
+    }
+
+    /**
+     * Revoke the family of the given refresh token (logout); unknown tokens are ignored.
+     */
+    public void revoke(String token) {
+        refreshTokenRepository.findByTokenHash(hash(token))
+                .ifPresent(t -> refreshTokenRepository.revokeFamily(t.getFamilyId()));
+    }
+
+    /**
+     * Delete tokens past their expiry; replaced tokens are kept until then for reuse detection.
+     */
+    @Scheduled(fixedDelayString = "${auth.refresh.cleanup-interval-ms:3600000}",
+            initialDelayString = "${auth.refresh.cleanup-interval-ms:3600000}")
+    public void deleteExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(Instant.now());
+        if (deleted > 0) {
+            log.info("Deleted {} expired refresh tokens", deleted);
+        }
+    }
+
+    /* ------------------ Helpers ------------------ */
+
+    private String issue(UUID userId, int securityVersion, UUID familyId) {
+        byte[] raw = new byte[TOKEN_BYTES];
+        random.nextBytes(raw);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+
+        refreshTokenRepository.save(RefreshToken.builder()
+                .id(idGenerator.nextId())
+                .tokenHash(hash(token))
+                .userId(userId)
+                .familyId(familyId)
+                .securityVersion(securityVersion)
+                .expiresAt(Instant.now().plusMillis(ttlMs))
+                .build());
+        return token;
+    }
+
+    // package-private for tests
+    byte[] hash(String token) {
+        Mac mac = macs.acquire();
+        byte[] hash = mac.doFinal(token.getBytes(StandardCharsets.US_ASCII));
+        macs.release(mac);
+        return hash;
+    }
+
+    /**
+     * Result of a successful exchange.
+     */
+    public static final class Rotation {
+        private final AuthenticatedUser user;
+        private final String refreshToken;
+
+        Rotation(AuthenticatedUser user, String refreshToken) {
+            this.user = user;
+            this.refreshToken = refreshToken;
+        }
+
+        public AuthenticatedUser getUser() {
+            return user;
+        }
+
+        public String getRefreshToken() {
+            return refreshToken;
+        }
+    }
+}
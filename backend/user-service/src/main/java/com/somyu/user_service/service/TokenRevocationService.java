@@ -0,0 +1,197 @@
+package com.somyu.user_service.service;
+
+import com.somyu.user_service.entity.RevokedToken;
+import com.somyu.user_service.event.UserChangedEvent;
+import com.somyu.user_service.repository.RefreshTokenRepository;
+import com.somyu.user_service.repository.RevokedTokenRepository;
+import com.somyu.user_service.repository.UserAuthView;
+import com.somyu.user_service.repository.UserRepository;
+import com.somyu.user_service.security.TokenDenylist;
+import com.somyu.user_service.security.VerifiedToken;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Logout and "revoke all" for access tokens.
+ * <p>
+ * Logout puts the token's jti on the in-memory {@link TokenDenylist} and records it in
+ * {@code revoked_tokens}. Every instance loads that table at startup and polls it for new
+ * rows, so a revocation is seen cluster-wide within one sync interval. Revoking all of a
+ * user's tokens, or a revocation that does not fit in the denylist, bumps the user's
+ * security version instead, which needs no per-token memory. A row that does not fit on a
+ * polling instance is bumped for once, by whichever instance claims its
+ * {@code fallback_applied} flag first; later polls and other instances skip it.
+ */
+@Service
+@Transactional
+public class TokenRevocationService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private static final int FETCH_SIZE = 5000;
+    // rows are stamped with the revoking instance's clock; overlap polls to tolerate skew
+    private static final long SYNC_OVERLAP_MS = 5000;
+
+    private final TokenDenylist denylist;
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final UserRepository userRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenService refreshTokenService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Counter overflow;
+    private volatile long lastSyncMillis;
+
+    public TokenRevocationService(TokenDenylist denylist,
+                                  RevokedTokenRepository revokedTokenRepository,
+                                  UserRepository userRepository,
+                                  RefreshTokenRepository refreshTokenRepository,
+                                  RefreshTokenService refreshTokenService,
+                                  JdbcTemplate jdbcTemplate,
+                                  TransactionTemplate transactionTemplate,
+                                  ApplicationEventPublisher eventPublisher,
+                                  MeterRegistry meterRegistry) {
+        this.denylist = denylist;
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.userRepository = userRepository;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.refreshTokenService = refreshTokenService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+        this.eventPublisher = eventPublisher;
+        this.overflow = Counter.builder("auth.revocation.overflow")
+                .description("Revocations that fell back to a security-version bump because the denylist was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Revoke one access token and, if given, the refresh token family issued with it.
+     */
+    public void logout(VerifiedToken token, String refreshToken) {
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            refreshTokenService.revoke(refreshToken);
+        }
+        if (token.getTokenId() != null && token.getExpiresAt() != null
+                && denylist.add(token.getTokenId(), token.getExpiresAt().toEpochMilli())) {
+            revokedTokenRepository.save(RevokedToken.builder()
+                    .jti(token.getTokenId())
+                    .userId(token.getUserId())
+                    .expiresAt(token.getExpiresAt())
+                    .revokedAt(Instant.now())
+                    .build());
+            return;
+        }
+        // token without jti or exp, or no room left: revoke everything the user holds
+        overflow.increment();
+        if (token.getUserId() != null) {
+            userRepository.incrementSecurityVersion(token.getUserId());
+        } else {
+            userRepository.incrementSecurityVersionByEmail(token.getSubject());
+        }
+        eventPublisher.publishEvent(new UserChangedEvent(token.getUserId(), token.getSubject()));
+    }
+
+    /**
+     * Revoke every access and refresh token of a user (admin action).
+     */
+    public void revokeAll(UUID userId) {
+        UserAuthView user = userRepository.findAuthViewById(userId)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + userId));
+        userRepository.incrementSecurityVersion(userId);
+        refreshTokenRepository.revokeAllForUser(userId);
+        eventPublisher.publishEvent(new UserChangedEvent(userId, user.email()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public void loadOnStartup() {
+        sync();
+    }
+
+    /**
+     * Pull revocations recorded since the last poll (all unexpired ones on the first run).
+     */
+    @Scheduled(fixedDelayString = "${auth.revocation.sync-interval-ms:5000}",
+            initialDelayString = "${auth.revocation.sync-interval-ms:5000}")
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public void sync() {
+        long started = System.currentTimeMillis();
+        long since = lastSyncMillis == 0 ? 0 : lastSyncMillis - SYNC_OVERLAP_MS;
+        Map<UUID, UUID> overflowed = new HashMap<>();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+                var ps = con.prepareStatement("SELECT jti, user_id, expires_at, fallback_applied FROM revoked_tokens"
+                        + " WHERE revoked_at > ? AND expires_at > ?");
+                ps.setTimestamp(1, new Timestamp(since));
+                ps.setTimestamp(2, new Timestamp(started));
+                ps.setFetchSize(FETCH_SIZE);
+                return ps;
+            }, rs -> {
+                UUID jti = rs.getObject(1, UUID.class);
+                if (!denylist.add(jti, rs.getTimestamp(3).getTime()) && !rs.getBoolean(4)) {
+                    overflowed.put(jti, rs.getObject(2, UUID.class));
+                }
+            }));
+            lastSyncMillis = started;
+        } catch (RuntimeException ex) {
+            log.warn("Revoked token sync failed, retrying next interval", ex);
+            return;
+        } finally {
+            denylist.purgeExpired();
+        }
+
+        if (!overflowed.isEmpty()) {
+            log.warn("Denylist full ({} entries): {} revocations fall back to a security-version bump",
+                    denylist.size(), overflowed.size());
+            overflowed.forEach(this::applyFallbackOnce);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${auth.revocation.cleanup-interval-ms:3600000}",
+            initialDelayString = "${auth.revocation.cleanup-interval-ms:3600000}")
+    public void deleteExpired() {
+        int deleted = revokedTokenRepository.deleteExpired(Instant.now());
+        if (deleted > 0) {
+            log.info("Deleted {} expired revoked-token rows", deleted);
+        }
+    }
+
+    private void applyFallbackOnce(UUID jti, UUID userId) {
+        try {
+            // called from sync(), which runs outside a transaction
+            transactionTemplate.executeWithoutResult(status -> {
+                if (revokedTokenRepository.claimFallback(jti) == 0 || userId == null) {
+                    return;
+                }
+                overflow.increment();
+                userRepository.incrementSecurityVersion(userId);
+                userRepository.findAuthViewById(userId).ifPresent(user ->
+                        eventPublisher.publishEvent(new UserChangedEvent(userId, user.email())));
+            });
+        } catch (RuntimeException ex) {
+            log.warn("Could not apply revocation fallback for user {}", userId, ex);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.somyu.user_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.somyu.user_service.config.UserListingProperties;
+import com.somyu.user_service.dto.UserPage;
+import com.somyu.user_service.dto.UserResponse;
+import com.somyu.user_service.entity.Role;
+import com.somyu.user_service.exception.InvalidCursorException;
+import com.somyu.user_service.repository.UserListView;
+import com.somyu.user_service.repository.UserRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Admin listing of users, in (created_at, id) order.
+ * <p>
+ * Pages use keyset pagination. The cursor encodes the last row's key, and the next page is an
+ * index range scan from there. Cost per page is the same whether it is the first page or the
+ * millionth, and rows are read as DTO projections. The export streams every user as NDJSON from
+ * a forward-only JDBC cursor, so memory stays at one fetch batch whatever the table size.
+ */
+@Service
+public class UserListingService {
+
+    private static final String EXPORT_QUERY =
+            "SELECT id, full_name, email, roles_mask, enabled, created_at, updated_at " +
+            "FROM users ORDER BY created_at, id";
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final UserListingProperties properties;
+
+    public UserListingService(UserRepository userRepository,
+                              JdbcTemplate jdbcTemplate,
+                              TransactionTemplate transactionTemplate,
+                              ObjectMapper objectMapper,
+                              UserListingProperties properties) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    /**
+     * One page of users after the given cursor (first page when null).
+     */
+    public UserPage page(String after, Integer limit) {
+        int size = limit != null ? limit : properties.getDefaultPageSize();
+        // one extra row tells whether there is a next page without a count query
+        Limit fetch = Limit.of(size + 1);
+        List<UserListView> rows;
+        if (after == null || after.isEmpty()) {
+            rows = userRepository.findListViews(fetch);
+        } else {
+            Cursor cursor = Cursor.decode(after);
+            rows = userRepository.findListViewsAfter(cursor.createdAt, cursor.id, fetch);
+        }
+
+        boolean hasMore = rows.size() > size;
+        List<UserResponse> users = new ArrayList<>(Math.min(rows.size(), size));
+        for (int i = 0; i < rows.size() && i < size; i++) {
+            users.add(UserMapper.toUserResponse(rows.get(i)));
+        }
+        String nextCursor = null;
+        if (hasMore) {
+            UserListView last = rows.get(size - 1);
+            nextCursor = new Cursor(last.createdAt(), last.id()).encode();
+        }
+        return UserPage.builder()
+                .users(users)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Write every user as one NDJSON line (same fields as {@link UserResponse}).
+     */
+    public void export(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try {
+            // PostgreSQL only streams with a fetch size inside a transaction (autocommit off)
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+                var ps = con.prepareStatement(EXPORT_QUERY);
+                ps.setFetchSize(properties.getExportFetchSize());
+                return ps;
+            }, rs -> {
+                Timestamp updatedAt = rs.getTimestamp(7);
+                UserResponse user = UserResponse.builder()
+                        .id(rs.getObject(1, UUID.class))
+                        .fullName(rs.getString(2))
+                        .email(rs.getString(3))
+                        .roles(UserMapper.roleNames(Role.fromMask(rs.getInt(4))))
+                        .enabled(rs.getBoolean(5))
+                        .createdAt(rs.getTimestamp(6).toInstant())
+                        .updatedAt(updatedAt != null ? updatedAt.toInstant() : null)
+                        .build();
+                try {
+                    writer.write(objectMapper.writeValueAsString(user));
+                    writer.write('\n');
+                } catch (IOException ex) {
+                    // client went away: abort the query instead of reading the rest of the table
+                    throw new UncheckedIOException(ex);
+                }
+            }));
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        writer.flush();
+    }
+
+    /**
+     * Opaque page cursor: base64url of "createdAt|id".
+     */
+    static final class Cursor {
+        final Instant createdAt;
+        final UUID id;
+
+        Cursor(Instant createdAt, UUID id) {
+            this.createdAt = createdAt;
+            this.id = id;
+        }
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((createdAt + "|" + id).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String value) {
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+                int sep = decoded.indexOf('|');
+                if (sep < 0) {
+                    throw new InvalidCursorException("Invalid cursor");
+                }
+                return new Cursor(Instant.parse(decoded.substring(0, sep)), UUID.fromString(decoded.substring(sep + 1)));
+            } catch (IllegalArgumentException | DateTimeParseException ex) {
+                throw new InvalidCursorException("Invalid cursor");
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.somyu.user_service.service;
+
+import com.somyu.user_service.cache.BoundedCache;
+import com.somyu.user_service.config.UserLookupProperties;
+import com.somyu.user_service.datasource.ReadYourWrites;
+import com.somyu.user_service.dto.UserLookupResult;
+import com.somyu.user_service.dto.UserResponse;
+import com.somyu.user_service.event.UserChangedEvent;
+import com.somyu.user_service.repository.UserListView;
+import com.somyu.user_service.repository.UserRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Batch user lookup for internal services.
+ * <p>
+ * Keys are de-duplicated and served from a short-TTL cache where possible. The rest are
+ * resolved with chunked {@code IN (...)} projection queries, one per
+ * {@code user.lookup.chunk-size} keys. Roles come from the same row (bitmask), so no
+ * second query is needed. Results follow the request order, and a key with no user is
+ * returned as an explicit miss.
+ */
+@Service
+public class UserLookupService {
+
+    private final UserRepository userRepository;
+    private final ReadYourWrites readYourWrites;
+    private final int chunkSize;
+    // keyed by id string and by normalized email; the two never collide (emails contain '@')
+    private final BoundedCache<String, UserResponse> cache;
+
+    private final DistributionSummary batchSize;
+    private final DistributionSummary queriedKeys;
+
+    public UserLookupService(UserRepository userRepository,
+                             ReadYourWrites readYourWrites,
+                             UserLookupProperties properties,
+                             MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.readYourWrites = readYourWrites;
+        this.chunkSize = properties.getChunkSize();
+        this.cache = new BoundedCache<>(properties.getCacheSize(), properties.getCacheTtlMs());
+
+        this.batchSize = DistributionSummary.builder("user.lookup.batch.size")
+                .description("Keys per batch lookup request")
+                .register(meterRegistry);
+        this.queriedKeys = DistributionSummary.builder("user.lookup.queried")
+                .description("Keys per batch lookup that had to be read from the database")
+                .register(meterRegistry);
+        FunctionCounter.builder("user.lookup.cache.requests", cache, BoundedCache::hitCount)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("user.lookup.cache.requests", cache, BoundedCache::missCount)
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    public List<UserLookupResult> byIds(List<UUID> ids) {
+        Map<String, UUID> keys = new LinkedHashMap<>(ids.size() * 2);
+        for (UUID id : ids) {
+            keys.put(id.toString(), id);
+        }
+        Map<String, UserResponse> found = resolve(keys, userRepository::findListViewsByIdIn,
+                view -> view.id().toString());
+
+        List<UserLookupResult> results = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            results.add(result(id.toString(), found.get(id.toString())));
+        }
+        return results;
+    }
+
+    public List<UserLookupResult> byEmails(List<String> emails) {
+        Map<String, String> keys = new LinkedHashMap<>(emails.size() * 2);
+        for (String email : emails) {
+            String normalized = normalize(email);
+            keys.put(normalized, normalized);
+        }
+        Map<String, UserResponse> found = resolve(keys, userRepository::findListViewsByEmailIn,
+                view -> view.email());
+
+        List<UserLookupResult> results = new ArrayList<>(emails.size());
+        for (String email : emails) {
+            results.add(result(email, found.get(normalize(email))));
+        }
+        return results;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.getUserId() != null) {
+            cache.invalidate(event.getUserId().toString());
+        }
+        if (event.getEmail() != null) {
+            cache.invalidate(normalize(event.getEmail()));
+        }
+    }
+
+    /**
+     * Look up every distinct key, cache first; returns the users found by cache key.
+     */
+    private <K> Map<String, UserResponse> resolve(Map<String, K> keys,
+                                                  Function<Collection<K>, List<UserListView>> query,
+                                                  Function<UserListView, String> cacheKey) {
+        batchSize.record(keys.size());
+        Map<String, UserResponse> found = new HashMap<>(keys.size() * 2);
+        List<K> missing = new ArrayList<>();
+        for (Map.Entry<String, K> entry : keys.entrySet()) {
+            UserResponse cached = cache.get(entry.getKey());
+            if (cached != null) {
+                found.put(entry.getKey(), cached);
+            } else {
+                missing.add(entry.getValue());
+            }
+        }
+        queriedKeys.record(missing.size());
+
+        for (int from = 0; from < missing.size(); from += chunkSize) {
+            List<K> chunk = missing.subList(from, Math.min(from + chunkSize, missing.size()));
+            for (UserListView view : readYourWrites.readAny(chunk, () -> query.apply(chunk))) {
+                UserResponse user = UserMapper.toUserResponse(view);
+                String key = cacheKey.apply(view);
+                cache.put(key, user);
+                found.put(key, user);
+            }
+        }
+        return found;
+    }
+
+    private static UserLookupResult result(String key, UserResponse user) {
+        return UserLookupResult.builder()
+                .key(key)
+                .found(user != null)
+                .user(user)
+                .build();
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
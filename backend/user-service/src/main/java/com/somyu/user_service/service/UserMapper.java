@@ -0,0 +1,50 @@
+package com.somyu.user_service.service;
+
+import com.somyu.user_service.dto.UserResponse;
+import com.somyu.user_service.entity.Role;
+import com.somyu.user_service.entity.User;
+import com.somyu.user_service.repository.UserListView;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Entity to API mapping for users.
+ */
+public final class UserMapper {
+
+    private UserMapper() {
+    }
+
+    public static UserResponse toUserResponse(User user) {
+        return UserResponse.builder()
+                .id(user.getId())
+                .fullName(user.getFullName())
+                .email(user.getEmail())
+                .roles(roleNames(user.getRoles()))
+                .enabled(user.isEnabled())
+                .createdAt(user.getCreatedAt())
+                .updatedAt(user.getUpdatedAt())
+                .build();
+    }
+
+    public static UserResponse toUserResponse(UserListView user) {
+        return UserResponse.builder()
+                .id(user.id())
+                .fullName(user.fullName())
+                .email(user.email())
+                .roles(roleNames(user.roles()))
+                .enabled(user.enabled())
+                .createdAt(user.createdAt())
+                .updatedAt(user.updatedAt())
+                .build();
+    }
+
+    public static Set<String> roleNames(Set<Role> roles) {
+        Set<String> roleNames = new HashSet<>(Math.max(4, roles.size() * 2));
+        for (Role role : roles) {
+            roleNames.add(role.name());
+        }
+        return roleNames;
+    }
+}
@@ -0,0 +1,114 @@
+package com.somyu.user_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.somyu.user_service.cache.BoundedCache;
+import com.somyu.user_service.config.ProfileCacheProperties;
+import com.somyu.user_service.datasource.ReadYourWrites;
+import com.somyu.user_service.dto.UserResponse;
+import com.somyu.user_service.event.UserChangedEvent;
+import com.somyu.user_service.repository.UserListView;
+import com.somyu.user_service.repository.UserRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import java.util.UUID;
+
+/**
+ * Read-through cache of user profiles as served by the profile endpoints.
+ * <p>
+ * Each entry holds the {@link UserResponse}, its JSON bytes and an ETag hashed from those
+ * bytes. A repeated read then costs neither a query nor serialization, and a
+ * conditional read that matches costs neither plus no body. Entries are dropped on
+ * {@link UserChangedEvent} and expire after {@code user.profile-cache.ttl-ms}.
+ */
+@Service
+public class UserProfileService {
+
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final ReadYourWrites readYourWrites;
+    private final BoundedCache<UUID, Profile> cache;
+
+    public UserProfileService(UserRepository userRepository,
+                              ObjectMapper objectMapper,
+                              ReadYourWrites readYourWrites,
+                              ProfileCacheProperties properties,
+                              MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.readYourWrites = readYourWrites;
+        this.cache = new BoundedCache<>(properties.getMaxSize(), properties.getTtlMs());
+
+        FunctionCounter.builder("user.profile.cache.requests", cache, BoundedCache::hitCount)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("user.profile.cache.requests", cache, BoundedCache::missCount)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("user.profile.cache.size", cache, BoundedCache::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Profile of the given user.
+     *
+     * @throws UsernameNotFoundException if there is no such user
+     */
+    public Profile get(UUID id) {
+        return cache.get(id, this::load);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.getUserId() != null) {
+            cache.invalidate(event.getUserId());
+        }
+    }
+
+    private Profile load(UUID id) {
+        // a stale replica read would otherwise be cached for the whole TTL
+        UserListView view = readYourWrites.read(id, () -> userRepository.findListViewById(id))
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + id));
+        UserResponse user = UserMapper.toUserResponse(view);
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(user);
+            // from the body rather than updatedAt, which bulk updates such as the role migration skip
+            return new Profile(user, json, "\"" + DigestUtils.md5DigestAsHex(json) + "\"");
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize user " + id, ex);
+        }
+    }
+
+    /**
+     * Rendered profile; {@code json} is shared between callers and must not be modified.
+     */
+    public static final class Profile {
+        private final UserResponse user;
+        private final byte[] json;
+        private final String etag;
+
+        Profile(UserResponse user, byte[] json, String etag) {
+            this.user = user;
+            this.json = json;
+            this.etag = etag;
+        }
+
+        public UserResponse getUser() {
+            return user;
+        }
+
+        public byte[] getJson() {
+            return json;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+    }
+}
@@ -4,12 +4,19 @@ import com.somyu.user_service.dto.RegisterRequest;
 import com.somyu.user_service.dto.UserResponse;
 import com.somyu.user_service.entity.Role;
 import com.somyu.user_service.entity.User;
+import com.somyu.user_service.datasource.ReadYourWrites;
+import com.somyu.user_service.event.UserChangedEvent;
 import com.somyu.user_service.exception.EmailAlreadyUsedException;
+import com.somyu.user_service.id.IdGenerator;
 import com.somyu.user_service.repository.UserRepository;
 import jakarta.transaction.Transactional;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.sql.SQLException;
 import java.util.Set;
 import java.util.UUID;
 
@@ -17,13 +24,26 @@ import java.util.UUID;
 @Transactional
 public class UserServiceImpl implements UserService {
 
+    // SQLSTATE for unique_violation
+    private static final String UNIQUE_VIOLATION = "23505";
+    private static final String EMAIL_INDEX = "idx_users_email";
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final IdGenerator idGenerator;
+    private final ReadYourWrites readYourWrites;
 
     public UserServiceImpl(UserRepository userRepository,
-                           PasswordEncoder passwordEncoder) {
+                           PasswordEncoder passwordEncoder,
+                           ApplicationEventPublisher eventPublisher,
+                           IdGenerator idGenerator,
+                           ReadYourWrites readYourWrites) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
+        this.idGenerator = idGenerator;
+        this.readYourWrites = readYourWrites;
     }
 
     /**
@@ -33,14 +53,9 @@ public class UserServiceImpl implements UserService {
     public UserResponse register(RegisterRequest request) {
         String email = request.getEmail().toLowerCase().trim();
 
-        // Check uniqueness
-        if (userRepository.existsByEmail(email)) {
-            throw new EmailAlreadyUsedException("Email is already registered: " + email);
-        }
-
         // Build user entity
         User user = User.builder()
-                // id will be created in @PrePersist if null
+                .id(idGenerator.nextId())
                 .fullName(request.getFullName().trim())
                 .email(email)
                 .password(passwordEncoder.encode(request.getPassword()))
@@ -48,33 +63,58 @@ public class UserServiceImpl implements UserService {
                 .enabled(true)
                 .build();
 
-        User saved = userRepository.save(user);
+        // Insert directly and let the unique email index decide; this is also race-free
+        // when two sign-ups for the same email arrive at once
+        User saved;
+        try {
+            saved = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException ex) {
+            if (isEmailConflict(ex)) {
+                throw new EmailAlreadyUsedException("Email is already registered: " + email);
+            }
+            throw ex;
+        }
+
+        // caches keyed by email drop their entry once the transaction commits
+        eventPublisher.publishEvent(UserChangedEvent.registered(saved.getId(), saved.getEmail()));
 
-        return toUserResponse(saved);
+        return UserMapper.toUserResponse(saved);
     }
 
+    // Spring's annotation (jakarta's has no read-only flag) overrides the class-level one;
+    // read-only transactions may be served by a replica
     @Override
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
     public java.util.Optional<UUID> findUserIdByEmail(String email) {
-        return userRepository.findByEmail(email).map(User::getId);
+        return readYourWrites.read(email, () -> userRepository.findIdByEmail(email));
     }
 
     @Override
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
     public UserResponse getUserById(UUID id) {
-        return userRepository.findById(id).map(this::toUserResponse).orElse(null);
+        return readYourWrites.read(id, () -> userRepository.findById(id).map(UserMapper::toUserResponse).orElse(null));
     }
 
     /* ------------------ Helpers ------------------ */
 
-    private UserResponse toUserResponse(User user) {
-        return UserResponse.builder()
-                .id(user.getId())
-                .fullName(user.getFullName())
-                .email(user.getEmail())
-                .roles(user.getRoles().stream().map(Enum::name).collect(java.util.stream.Collectors.toSet()))
-                .enabled(user.isEnabled())
-                .createdAt(user.getCreatedAt())
-                .updatedAt(user.getUpdatedAt())
-                .build();
+    /**
+     * True only for a duplicate email. Other unique violations (e.g. a colliding id) are not the
+     * caller's fault and must not be reported as "already registered".
+     */
+    private static boolean isEmailConflict(DataIntegrityViolationException ex) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof ConstraintViolationException
+                    && EMAIL_INDEX.equalsIgnoreCase(((ConstraintViolationException) t).getConstraintName())) {
+                return true;
+            }
+            if (t instanceof SQLException && UNIQUE_VIOLATION.equals(((SQLException) t).getSQLState())) {
+                // PostgreSQL names the constraint, and its detail the key: Key (email)=(...) already exists.
+                // The detail also covers the column's own unique constraint from @Column(unique = true).
+                String message = t.getMessage();
+                return message != null
+                        && (message.contains("\"" + EMAIL_INDEX + "\"") || message.contains("Key (email)="));
+            }
+        }
+        return false;
     }
 }
-
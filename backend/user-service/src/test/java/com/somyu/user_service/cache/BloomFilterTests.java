@@ -0,0 +1,85 @@
+package com.somyu.user_service.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTests {
+
+    private static final int INSERTIONS = 100_000;
+
+    @Test
+    void everyAddedValueIsReported() {
+        BloomFilter filter = BloomFilter.create(INSERTIONS, 0.01);
+        for (int i = 0; i < INSERTIONS; i++) {
+            filter.put(email(i));
+        }
+
+        for (int i = 0; i < INSERTIONS; i++) {
+            assertThat(filter.mightContain(email(i))).as(email(i)).isTrue();
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTarget() {
+        BloomFilter filter = BloomFilter.create(INSERTIONS, 0.01);
+        for (int i = 0; i < INSERTIONS; i++) {
+            filter.put(email(i));
+        }
+
+        int falsePositives = 0;
+        for (int i = INSERTIONS; i < 2 * INSERTIONS; i++) {
+            if (filter.mightContain(email(i))) {
+                falsePositives++;
+            }
+        }
+        assertThat((double) falsePositives / INSERTIONS).isLessThan(0.02);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = BloomFilter.create(INSERTIONS, 0.01);
+
+        assertThat(filter.mightContain("alice@example.com")).isFalse();
+        assertThat(filter.mightContain("")).isFalse();
+    }
+
+    @Test
+    void concurrentAddsAreNotLost() throws Exception {
+        BloomFilter filter = BloomFilter.create(INSERTIONS, 0.01);
+        int threads = 8;
+        int perThread = INSERTIONS / threads;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int offset = t * perThread;
+                futures.add(executor.submit(() -> {
+                    for (int i = offset; i < offset + perThread; i++) {
+                        filter.put(email(i));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int i = 0; i < threads * perThread; i++) {
+            assertThat(filter.mightContain(email(i))).as(email(i)).isTrue();
+        }
+    }
+
+    private static String email(int i) {
+        return "user" + i + "@example.com";
+    }
+}
@@ -0,0 +1,38 @@
+package com.somyu.user_service.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "internal.api-token=test-internal-token")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class ActuatorSecurityTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void healthIsPublic() throws Exception {
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+    }
+
+    @Test
+    void prometheusRequiresInternalToken() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus").header("X-Internal-Token", "wrong"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void prometheusIsServedToInternalCallers() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus").header("X-Internal-Token", "test-internal-token"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,53 @@
+package com.somyu.user_service.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Internal callers often forward the end user's Bearer token; it must not replace or clear
+ * the ROLE_INTERNAL authentication granted by the internal API token.
+ */
+@SpringBootTest(properties = "internal.api-token=test-internal-token")
+@AutoConfigureMockMvc
+class InternalApiSecurityTests {
+
+    private static final String INTROSPECT_BODY = "{\"tokens\":[\"not-a-jwt\"]}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void internalTokenAloneIsAccepted() throws Exception {
+        mockMvc.perform(post("/api/auth/introspect")
+                        .header("X-Internal-Token", "test-internal-token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(INTROSPECT_BODY))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void invalidForwardedBearerTokenDoesNotClearInternalAuthentication() throws Exception {
+        mockMvc.perform(post("/api/auth/introspect")
+                        .header("X-Internal-Token", "test-internal-token")
+                        .header("Authorization", "Bearer not-a-jwt")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(INTROSPECT_BODY))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void bearerTokenWithoutInternalTokenIsNotInternal() throws Exception {
+        mockMvc.perform(post("/api/auth/introspect")
+                        .header("Authorization", "Bearer not-a-jwt")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(INTROSPECT_BODY))
+                .andExpect(status().isUnauthorized());
+    }
+}
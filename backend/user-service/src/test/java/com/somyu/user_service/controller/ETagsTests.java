@@ -0,0 +1,25 @@
+package com.somyu.user_service.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ETagsTests {
+
+    private static final String ETAG = "\"abc123\"";
+
+    @Test
+    void matchesExactWeakListAndWildcard() {
+        assertThat(ETags.matches("\"abc123\"", ETAG)).isTrue();
+        assertThat(ETags.matches("W/\"abc123\"", ETAG)).isTrue();
+        assertThat(ETags.matches("\"other\", W/\"abc123\"", ETAG)).isTrue();
+        assertThat(ETags.matches("*", ETAG)).isTrue();
+    }
+
+    @Test
+    void missingOrDifferentTagDoesNotMatch() {
+        assertThat(ETags.matches(null, ETAG)).isFalse();
+        assertThat(ETags.matches("\"other\"", ETAG)).isFalse();
+        assertThat(ETags.matches("abc123", ETAG)).isFalse();
+    }
+}
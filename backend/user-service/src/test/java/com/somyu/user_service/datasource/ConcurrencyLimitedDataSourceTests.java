@@ -0,0 +1,105 @@
+package com.somyu.user_service.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConcurrencyLimitedDataSourceTests {
+
+    private DataSource target;
+    private ConcurrencyLimitedDataSource limited;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        target = mock(DataSource.class);
+        when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        limited = new ConcurrencyLimitedDataSource(target, 1, 50);
+        registry = new SimpleMeterRegistry();
+        limited.bindTo(registry);
+    }
+
+    @Test
+    void closingConnectionReleasesPermit() throws SQLException {
+        Connection first = limited.getConnection();
+        assertThat(activePermits()).isEqualTo(1);
+
+        first.close();
+
+        assertThat(activePermits()).isZero();
+        limited.getConnection().close();
+    }
+
+    @Test
+    void closingConnectionTwiceReleasesOnePermit() throws SQLException {
+        Connection first = limited.getConnection();
+        first.close();
+        first.close();
+
+        Connection second = limited.getConnection();
+        assertThat(activePermits()).isEqualTo(1);
+        assertThatThrownBy(limited::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        second.close();
+    }
+
+    @Test
+    void failedGetConnectionReleasesPermit() throws SQLException {
+        when(target.getConnection())
+                .thenThrow(new SQLException("pool exhausted"))
+                .thenAnswer(invocation -> mock(Connection.class));
+
+        assertThatThrownBy(limited::getConnection).isInstanceOf(SQLException.class).hasMessage("pool exhausted");
+
+        assertThat(activePermits()).isZero();
+        limited.getConnection().close();
+    }
+
+    @Test
+    void waitingPastTimeoutIsRejected() throws SQLException {
+        Connection held = limited.getConnection();
+
+        assertThatThrownBy(limited::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+
+        assertThat(registry.get("db.connection.permits.rejected").functionCounter().count()).isEqualTo(1);
+        held.close();
+    }
+
+    @Test
+    void connectionEqualityIsByIdentity() throws SQLException {
+        limited = new ConcurrencyLimitedDataSource(target, 2, 50);
+        Connection first = limited.getConnection();
+        Connection second = limited.getConnection();
+
+        assertThat(first).isEqualTo(first);
+        assertThat(first.hashCode()).isEqualTo(first.hashCode()).isEqualTo(System.identityHashCode(first));
+        assertThat(first).isNotEqualTo(second);
+        first.close();
+        second.close();
+    }
+
+    @Test
+    void closeClosesWrappedPool() {
+        HikariDataSource pool = mock(HikariDataSource.class);
+
+        new ConcurrencyLimitedDataSource(pool, 1, 50).close();
+
+        verify(pool, times(1)).close();
+    }
+
+    private double activePermits() {
+        return registry.get("db.connection.permits.active").gauge().value();
+    }
+}
@@ -0,0 +1,89 @@
+package com.somyu.user_service.datasource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Login and refresh with read replicas enabled. The "replica" is the primary database opened
+ * with {@code default_transaction_read_only=on}, so like a hot standby it rejects writes: a
+ * write that lands on a connection picked for a read-only transaction fails the request.
+ */
+@SpringBootTest(properties = {
+        "datasource.replicas.enabled=true",
+        "datasource.replicas.urls=${spring.datasource.url}?options=-c%20default_transaction_read_only=on",
+        // let the login read go to the replica right after registration
+        "datasource.replicas.read-your-writes-window-ms=1"
+})
+@AutoConfigureMockMvc
+class ReadReplicaLoginRefreshTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void loginReadsFromReplicaAndWritesRefreshTokensToPrimary() throws Exception {
+        String email = "replica-" + UUID.randomUUID() + "@example.com";
+        String password = "password-1234";
+
+        mockMvc.perform(post("/api/user/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("fullName", "Replica Test", "email", email, "password", password))))
+                .andExpect(status().isCreated());
+        Thread.sleep(20);
+
+        double replicaReadsBefore = replicaReads();
+        JsonNode login = body(mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("email", email, "password", password))))
+                .andExpect(status().isOk())
+                .andReturn());
+        assertThat(replicaReads()).isGreaterThan(replicaReadsBefore);
+
+        String refreshToken = login.get("refreshToken").asText();
+        JsonNode refreshed = body(mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("refreshToken", refreshToken))))
+                .andExpect(status().isOk())
+                .andReturn());
+
+        assertThat(refreshed.get("accessToken").asText()).isNotBlank();
+        assertThat(refreshed.get("refreshToken").asText()).isNotEqualTo(refreshToken);
+        assertThat(refreshed.get("email").asText()).isEqualTo(email);
+    }
+
+    private double replicaReads() {
+        return meterRegistry.get("db.routing.connections")
+                .tag("target", "replica")
+                .counter()
+                .count();
+    }
+
+    private String json(Map<String, String> fields) throws Exception {
+        return objectMapper.writeValueAsString(fields);
+    }
+
+    private JsonNode body(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+}
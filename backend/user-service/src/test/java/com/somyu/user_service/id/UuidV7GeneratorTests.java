@@ -0,0 +1,124 @@
+package com.somyu.user_service.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7GeneratorTests {
+
+    private static final long MILLIS = 1_700_000_000_000L;
+
+    private final AtomicLong clock = new AtomicLong(MILLIS);
+    private final UuidV7Generator generator = new UuidV7Generator(clock::get);
+
+    @Test
+    void hasVersion7AndRfcVariant() {
+        UUID id = generator.nextId();
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        assertThat(UUID.fromString(id.toString())).isEqualTo(id);
+    }
+
+    @Test
+    void embedsUnixMillis() {
+        assertThat(millisOf(generator.nextId())).isEqualTo(MILLIS);
+    }
+
+    @Test
+    void idsWithinOneMillisecondIncreaseBySequence() {
+        UUID first = generator.nextId();
+        UUID second = generator.nextId();
+        UUID third = generator.nextId();
+
+        assertThat(List.of(millisOf(first), millisOf(second), millisOf(third))).containsOnly(MILLIS);
+        assertThat(List.of(sequenceOf(first), sequenceOf(second), sequenceOf(third))).containsExactly(0L, 1L, 2L);
+        assertThat(first).isLessThan(second);
+        assertThat(second).isLessThan(third);
+    }
+
+    @Test
+    void sequenceOverflowAdvancesTimestamp() {
+        UUID last = null;
+        for (int i = 0; i <= 4096; i++) {
+            last = generator.nextId();
+        }
+
+        assertThat(millisOf(last)).isEqualTo(MILLIS + 1);
+        assertThat(sequenceOf(last)).isZero();
+    }
+
+    @Test
+    void clockGoingBackwardsKeepsIdsIncreasing() {
+        UUID before = generator.nextId();
+        clock.set(MILLIS - 1000);
+
+        UUID after = generator.nextId();
+
+        assertThat(after).isGreaterThan(before);
+        assertThat(millisOf(after)).isEqualTo(MILLIS);
+        assertThat(sequenceOf(after)).isEqualTo(1);
+    }
+
+    @Test
+    void newMillisecondRestartsSequence() {
+        generator.nextId();
+        generator.nextId();
+        clock.set(MILLIS + 1);
+
+        UUID id = generator.nextId();
+
+        assertThat(millisOf(id)).isEqualTo(MILLIS + 1);
+        assertThat(sequenceOf(id)).isZero();
+    }
+
+    @Test
+    void concurrentCallersGetDistinctIncreasingIds() throws Exception {
+        UuidV7Generator shared = new UuidV7Generator();
+        int threads = 8;
+        int perThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<UUID>>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    List<UUID> ids = new ArrayList<>(perThread);
+                    for (int i = 0; i < perThread; i++) {
+                        ids.add(shared.nextId());
+                    }
+                    return ids;
+                }));
+            }
+
+            Set<UUID> all = new HashSet<>();
+            for (Future<List<UUID>> future : futures) {
+                List<UUID> ids = future.get(10, TimeUnit.SECONDS);
+                // each caller sees its own ids in increasing order
+                assertThat(ids).isSorted();
+                all.addAll(ids);
+            }
+            assertThat(all).hasSize(threads * perThread);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static long millisOf(UUID id) {
+        return id.getMostSignificantBits() >>> 16;
+    }
+
+    private static long sequenceOf(UUID id) {
+        return id.getMostSignificantBits() & 0xFFFL;
+    }
+}
@@ -0,0 +1,128 @@
+package com.somyu.user_service.security;
+
+import com.somyu.user_service.config.JwtProperties;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class Hs256TokenMinterTests {
+
+    private static final Set<String> ROLES = new LinkedHashSet<>(List.of("ROLE_USER", "ROLE_ADMIN"));
+
+    private SigningKeyRing keyRing;
+    private JwtProvider provider;
+    private Hs256TokenMinter minter;
+    private JwtParser parser;
+
+    @BeforeEach
+    void setUp() {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret("test-secret-test-secret-test-secret-0123456789");
+        properties.setAlgorithm("HS256");
+        properties.setExpirationMs(3_600_000);
+        properties.setVerifiedCacheSize(100);
+        keyRing = new SigningKeyRing(properties);
+        provider = new JwtProvider(properties, keyRing, new SimpleMeterRegistry());
+        minter = new Hs256TokenMinter(keyRing.getActiveKey().getKey());
+        parser = Jwts.parserBuilder().setSigningKey(keyRing.getActiveKey().getKey()).build();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "alice@example.com",
+            "zoë.müller@exämple.de",
+            "名前@例え.jp",
+            "smile😀@example.com",
+            "quote\"back\\slash/solidus@example.com",
+            "control\n\t\r\b\f\u0001\u001f@example.com",
+    })
+    void mintedTokenHasTheSameClaimsAsTheJjwtBuilder(String subject) {
+        UUID tokenId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        // not a whole second, so both paths must truncate the same way
+        long nowMillis = System.currentTimeMillis() / 1000 * 1000 + 789;
+        long expiryMillis = nowMillis + 3_600_000;
+
+        Jws<Claims> minted = parser.parseClaimsJws(minter.mint(tokenId, subject, userId, 7, ROLES,
+                nowMillis / 1000, expiryMillis / 1000));
+        Jws<Claims> built = parser.parseClaimsJws(provider.buildToken(tokenId, subject, userId, 7, ROLES,
+                nowMillis, expiryMillis));
+
+        assertThat(new HashMap<>(minted.getHeader())).isEqualTo(new HashMap<>(built.getHeader()));
+        assertThat(new HashMap<>(minted.getBody())).isEqualTo(new HashMap<>(built.getBody()));
+        assertThat(minted.getBody().getSubject()).isEqualTo(subject);
+    }
+
+    @Test
+    void optionalClaimsAreLeftOutLikeTheJjwtBuilder() {
+        UUID tokenId = UUID.randomUUID();
+        long nowMillis = System.currentTimeMillis();
+        long expiryMillis = nowMillis + 60_000;
+
+        Claims minted = parser.parseClaimsJws(minter.mint(tokenId, "bob@example.com", null, null, Set.of(),
+                nowMillis / 1000, expiryMillis / 1000)).getBody();
+        Claims built = parser.parseClaimsJws(provider.buildToken(tokenId, "bob@example.com", null, null, Set.of(),
+                nowMillis, expiryMillis)).getBody();
+
+        assertThat(new HashMap<>(minted)).isEqualTo(new HashMap<>(built));
+        assertThat(minted).doesNotContainKeys(JwtProvider.SECURITY_VERSION_CLAIM, JwtProvider.USER_ID_CLAIM,
+                JwtProvider.ROLES_CLAIM);
+    }
+
+    @Test
+    void generatedTokensVerifyThroughTheProvider() {
+        AuthenticatedUser user = new AuthenticatedUser(UUID.randomUUID(), "carol@example.com", "hash", true,
+                Set.of(), 3);
+        VerifiedToken verified = provider.verify(provider.generateToken(user, Set.of("ROLE_USER"))).orElseThrow();
+
+        assertThat(verified.getSubject()).isEqualTo("carol@example.com");
+        assertThat(verified.getUserId()).isEqualTo(user.getId());
+        assertThat(verified.getSecurityVersion()).isEqualTo(3);
+        assertThat(verified.getRoles()).containsExactly("ROLE_USER");
+    }
+
+    @Test
+    void concurrentMintingProducesValidTokens() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<Map<UUID, String>>> results = new ArrayList<>();
+            for (int t = 0; t < 16; t++) {
+                results.add(executor.submit(() -> {
+                    Map<UUID, String> tokens = new HashMap<>();
+                    long now = System.currentTimeMillis() / 1000;
+                    for (int i = 0; i < 200; i++) {
+                        UUID tokenId = UUID.randomUUID();
+                        tokens.put(tokenId, minter.mint(tokenId, "user" + i + "@example.com", null, i, ROLES,
+                                now, now + 60));
+                    }
+                    return tokens;
+                }));
+            }
+            for (Future<Map<UUID, String>> result : results) {
+                result.get().forEach((tokenId, token) ->
+                        assertThat(parser.parseClaimsJws(token).getBody().getId()).isEqualTo(tokenId.toString()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.somyu.user_service.security;
+
+import com.somyu.user_service.config.JwtProperties;
+import com.somyu.user_service.config.RevocationProperties;
+import com.somyu.user_service.exception.ErrorResponse;
+import com.somyu.user_service.exception.GlobalExceptionHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.ModelAndView;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Database failures during authentication must surface as 503, not as an anonymous request
+ * (filter) or a 500 (login).
+ */
+class JwtAuthenticationFilterTests {
+
+    private JwtProvider jwtProvider;
+    private AtomicReference<Exception> resolved;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret("test-secret-test-secret-test-secret-0123456789");
+        properties.setAlgorithm("HS256");
+        properties.setExpirationMs(3_600_000);
+        properties.setVerifiedCacheSize(100);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        jwtProvider = new JwtProvider(properties, new SigningKeyRing(properties), meterRegistry);
+
+        RevocationProperties revocationProperties = new RevocationProperties();
+        revocationProperties.setMaxEntries(100);
+        resolved = new AtomicReference<>();
+        filter = new JwtAuthenticationFilter(jwtProvider,
+                username -> {
+                    throw new CannotGetJdbcConnectionException("No database connection permit available");
+                },
+                mock(SecurityVersionRegistry.class),
+                new TokenDenylist(revocationProperties, meterRegistry),
+                properties,
+                meterRegistry,
+                (request, response, handler, ex) -> {
+                    resolved.set(ex);
+                    response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+                    return new ModelAndView();
+                });
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void databaseFailureInFilterIsResolvedInsteadOfContinuingAnonymously() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/user/me");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(resolved.get()).isInstanceOf(CannotGetJdbcConnectionException.class);
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value());
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void databaseFailureOnLoginIsServiceUnavailable() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        var wrapped = new InternalAuthenticationServiceException("No database connection permit available",
+                new CannotGetJdbcConnectionException("No database connection permit available"));
+
+        ResponseEntity<ErrorResponse> response = new GlobalExceptionHandler()
+                .handleInternalAuthentication(wrapped, request);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+    }
+
+    @Test
+    void otherInternalAuthenticationFailuresStayServerErrors() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+
+        ResponseEntity<ErrorResponse> response = new GlobalExceptionHandler()
+                .handleInternalAuthentication(new InternalAuthenticationServiceException("boom"), request);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    private String token() {
+        AuthenticatedUser user = new AuthenticatedUser(UUID.randomUUID(), "filter@example.com", "", true,
+                List.of(new SimpleGrantedAuthority("ROLE_USER")), 0);
+        return jwtProvider.generateToken(user, Set.of("ROLE_USER"));
+    }
+}
@@ -0,0 +1,146 @@
+package com.somyu.user_service.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTableTests {
+
+    private static final long SEED = 0x5eed5eed5eed5eedL;
+    private static final long NOW = 1_000_000L;
+
+    @Test
+    void burstUpToCapacityThenWaitForRefill() {
+        // 60 per minute = one token per second
+        TokenBucketTable table = new TokenBucketTable(64, 2, 60, SEED);
+
+        assertThat(table.tryAcquire("alice@example.com", NOW)).isZero();
+        assertThat(table.tryAcquire("alice@example.com", NOW)).isZero();
+        assertThat(table.tryAcquire("alice@example.com", NOW)).isEqualTo(1000);
+        assertThat(table.tryAcquire("alice@example.com", NOW + 500)).isEqualTo(500);
+
+        assertThat(table.tryAcquire("alice@example.com", NOW + 1000)).isZero();
+        assertThat(table.tryAcquire("alice@example.com", NOW + 1000)).isPositive();
+    }
+
+    @Test
+    void refillStopsAtCapacity() {
+        TokenBucketTable table = new TokenBucketTable(64, 2, 60, SEED);
+        table.tryAcquire("alice@example.com", NOW);
+
+        long later = NOW + 60_000;
+        assertThat(table.tryAcquire("alice@example.com", later)).isZero();
+        assertThat(table.tryAcquire("alice@example.com", later)).isZero();
+        assertThat(table.tryAcquire("alice@example.com", later)).isPositive();
+    }
+
+    @Test
+    void keysWithEqualStringHashCodesGetSeparateBuckets() {
+        assertThat("Aa".hashCode()).isEqualTo("BB".hashCode());
+        assertThat("AaAa@example.com".hashCode()).isEqualTo("BBBB@example.com".hashCode());
+        TokenBucketTable table = new TokenBucketTable(64, 1, 1, SEED);
+
+        assertThat(table.hash("Aa")).isNotEqualTo(table.hash("BB"));
+        assertThat(table.tryAcquire("AaAa@example.com", NOW)).isZero();
+        assertThat(table.tryAcquire("BBBB@example.com", NOW)).isZero();
+    }
+
+    @Test
+    void hashDependsOnSeedAndEveryChar() {
+        TokenBucketTable table = new TokenBucketTable(64, 1, 1, SEED);
+        TokenBucketTable other = new TokenBucketTable(64, 1, 1, SEED + 1);
+
+        assertThat(table.hash("alice@example.com")).isNotEqualTo(other.hash("alice@example.com"));
+        assertThat(table.hash("alice@example.com")).isNotEqualTo(table.hash("alice@example.con"));
+        assertThat(table.hash("abcd")).isNotEqualTo(table.hash("abcd\0"));
+    }
+
+    @Test
+    void drainedBucketIsEvictedOnlyWhenSetIsFull() {
+        // 4 slots = a single set
+        TokenBucketTable table = new TokenBucketTable(4, 1, 1, SEED);
+        for (int i = 0; i < 4; i++) {
+            assertThat(table.tryAcquire("user" + i, NOW + i)).isZero();
+        }
+        assertThat(table.evictionCount()).isZero();
+
+        assertThat(table.tryAcquire("user4", NOW + 4)).isZero();
+
+        assertThat(table.evictionCount()).isEqualTo(1);
+        // the least recently refilled bucket went; that key starts over with a full bucket
+        assertThat(table.tryAcquire("user0", NOW + 5)).isZero();
+        assertThat(table.tryAcquire("user4", NOW + 5)).isPositive();
+    }
+
+    @Test
+    void idleBucketIsReusedWithoutCountingAnEviction() {
+        TokenBucketTable table = new TokenBucketTable(4, 1, 60, SEED);
+        for (int i = 0; i < 4; i++) {
+            table.tryAcquire("user" + i, NOW);
+        }
+
+        // every bucket has refilled after a second
+        assertThat(table.tryAcquire("user4", NOW + 1000)).isZero();
+
+        assertThat(table.evictionCount()).isZero();
+    }
+
+    @Test
+    void keyWithFingerprintZeroIsNotMistakenForAnEmptySlot() {
+        TokenBucketTable table = new TokenBucketTable(64, 1, 1, SEED);
+        String key = keyWithFingerprintZero(table);
+
+        // capacity 1 at time 0 packs to 0 tokens and time 0; only the fingerprint keeps the slot non-empty
+        assertThat(table.tryAcquire(key, 0)).isZero();
+        assertThat(table.tryAcquire(key, 0)).isPositive();
+    }
+
+    @Test
+    void concurrentAcquisitionNeverExceedsCapacity() throws Exception {
+        TokenBucketTable table = new TokenBucketTable(64, 100, 1, SEED);
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int allowed = 0;
+                    for (int i = 0; i < 100; i++) {
+                        if (table.tryAcquire("shared@example.com", NOW) == 0) {
+                            allowed++;
+                        }
+                    }
+                    return allowed;
+                }));
+            }
+            start.countDown();
+
+            int allowed = 0;
+            for (Future<Integer> result : results) {
+                allowed += result.get(10, TimeUnit.SECONDS);
+            }
+            assertThat(allowed).isEqualTo(100);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static String keyWithFingerprintZero(TokenBucketTable table) {
+        for (int i = 0; ; i++) {
+            String key = "user" + i + "@example.com";
+            if (table.hash(key) >>> 48 == 0) {
+                return key;
+            }
+        }
+    }
+}
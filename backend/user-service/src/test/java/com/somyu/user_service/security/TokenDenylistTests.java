@@ -0,0 +1,94 @@
+package com.somyu.user_service.security;
+
+import com.somyu.user_service.config.RevocationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenDenylistTests {
+
+    private TokenDenylist denylist;
+
+    @BeforeEach
+    void setUp() {
+        RevocationProperties properties = new RevocationProperties();
+        properties.setMaxEntries(2);
+        denylist = new TokenDenylist(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void addedTokenIsRevokedUntilExpiry() {
+        UUID tokenId = UUID.randomUUID();
+
+        assertThat(denylist.add(tokenId, inMillis(60_000))).isTrue();
+
+        assertThat(denylist.isRevoked(tokenId)).isTrue();
+        assertThat(denylist.isRevoked(UUID.randomUUID())).isFalse();
+        assertThat(denylist.isRevoked(null)).isFalse();
+    }
+
+    @Test
+    void expiredTokenIsNotStored() {
+        assertThat(denylist.add(UUID.randomUUID(), System.currentTimeMillis() - 1)).isTrue();
+
+        assertThat(denylist.size()).isZero();
+    }
+
+    @Test
+    void fullListRefusesNewTokens() {
+        denylist.add(UUID.randomUUID(), inMillis(60_000));
+        denylist.add(UUID.randomUUID(), inMillis(60_000));
+
+        UUID overflow = UUID.randomUUID();
+        assertThat(denylist.add(overflow, inMillis(60_000))).isFalse();
+
+        assertThat(denylist.isRevoked(overflow)).isFalse();
+        assertThat(denylist.size()).isEqualTo(2);
+    }
+
+    @Test
+    void fullListAcceptsTokenAlreadyPresent() {
+        UUID tokenId = UUID.randomUUID();
+        denylist.add(tokenId, inMillis(60_000));
+        denylist.add(UUID.randomUUID(), inMillis(60_000));
+
+        // an overlapping sync reads the same row again
+        assertThat(denylist.add(tokenId, inMillis(60_000))).isTrue();
+
+        assertThat(denylist.size()).isEqualTo(2);
+    }
+
+    @Test
+    void expiredEntriesArePurgedAndFreeTheirSlots() throws InterruptedException {
+        UUID shortLived = UUID.randomUUID();
+        denylist.add(shortLived, inMillis(50));
+        denylist.add(UUID.randomUUID(), inMillis(60_000));
+
+        Thread.sleep(100);
+
+        assertThat(denylist.isRevoked(shortLived)).isFalse();
+        denylist.purgeExpired();
+        assertThat(denylist.size()).isEqualTo(1);
+    }
+
+    @Test
+    void fullListPurgesExpiredEntriesBeforeRefusing() throws InterruptedException {
+        denylist.add(UUID.randomUUID(), inMillis(50));
+        denylist.add(UUID.randomUUID(), inMillis(60_000));
+        Thread.sleep(100);
+
+        UUID next = UUID.randomUUID();
+        assertThat(denylist.add(next, inMillis(60_000))).isTrue();
+
+        assertThat(denylist.isRevoked(next)).isTrue();
+        assertThat(denylist.size()).isEqualTo(2);
+    }
+
+    private static long inMillis(long millis) {
+        return System.currentTimeMillis() + millis;
+    }
+}
@@ -0,0 +1,200 @@
+package com.somyu.user_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.somyu.user_service.config.BulkImportProperties;
+import com.somyu.user_service.dto.ImportRowResult;
+import com.somyu.user_service.security.OffloadingPasswordEncoder;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * CSV/NDJSON parsing and the per-row result stream, against a JDBC mock that behaves like
+ * {@code INSERT ... ON CONFLICT (email) DO NOTHING}.
+ */
+class BulkUserImportServiceTests {
+
+    private final Set<String> storedEmails = new HashSet<>();
+    private final List<Object[]> inserted = new ArrayList<>();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private BulkUserImportService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(inv -> {
+            List<Object[]> rows = inv.getArgument(1);
+            int[] counts = new int[rows.size()];
+            for (int i = 0; i < rows.size(); i++) {
+                if (storedEmails.add((String) rows.get(i)[2])) {
+                    inserted.add(rows.get(i));
+                    counts[i] = 1;
+                }
+            }
+            return counts;
+        });
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> ((TransactionCallback<Object>) inv.getArgument(0)).doInTransaction(null));
+
+        PasswordEncoder encoder = mock(PasswordEncoder.class);
+        when(encoder.encode(any())).thenAnswer(inv -> "{noop}" + inv.getArgument(0));
+        OffloadingPasswordEncoder offloading = mock(OffloadingPasswordEncoder.class);
+        when(offloading.getDelegate()).thenReturn(encoder);
+
+        BulkImportProperties properties = new BulkImportProperties();
+        properties.setChunkSize(2);
+        properties.setHashThreads(2);
+
+        service = new BulkUserImportService(jdbcTemplate, transactionTemplate, offloading,
+                Validation.buildDefaultValidatorFactory().getValidator(), objectMapper,
+                mock(ApplicationEventPublisher.class), UUID::randomUUID, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.destroy();
+    }
+
+    @Test
+    void csvWithoutHeaderUsesDefaultColumns() throws IOException {
+        List<ImportRowResult> results = importCsv("Bob,bob@example.com,password1\n");
+
+        assertThat(results).extracting(ImportRowResult::getStatus).containsExactly(ImportRowResult.Status.CREATED);
+        assertThat(inserted.get(0)[1]).isEqualTo("Bob");
+        assertThat(inserted.get(0)[3]).isEqualTo("{noop}password1");
+    }
+
+    @Test
+    void csvHeaderSetsColumnOrder() throws IOException {
+        List<ImportRowResult> results = importCsv("Password,EMAIL,full_name\npassword1,bob@example.com,Bob\n");
+
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).getLine()).isEqualTo(2);
+        assertThat(results.get(0).getStatus()).isEqualTo(ImportRowResult.Status.CREATED);
+        assertThat(inserted.get(0)[1]).isEqualTo("Bob");
+    }
+
+    @Test
+    void byteOrderMarkIsStrippedBeforeHeaderDetection() throws IOException {
+        List<ImportRowResult> results = importCsv("\uFEFFemail,password,fullname\nbob@example.com,password1,Bob\n");
+
+        assertThat(results).extracting(ImportRowResult::getStatus).containsExactly(ImportRowResult.Status.CREATED);
+        assertThat(inserted.get(0)[2]).isEqualTo("bob@example.com");
+    }
+
+    @Test
+    void byteOrderMarkIsStrippedFromFirstDataRow() throws IOException {
+        List<ImportRowResult> results = importCsv("\uFEFFBob,bob@example.com,password1\n");
+
+        assertThat(results).extracting(ImportRowResult::getStatus).containsExactly(ImportRowResult.Status.CREATED);
+        assertThat(inserted.get(0)[1]).isEqualTo("Bob");
+    }
+
+    @Test
+    void dataRowMentioningColumnNamesIsNotAHeader() throws IOException {
+        // "email" and "password" appear only inside cells, not as exact cell values
+        List<ImportRowResult> results = importCsv("Email Password,email@example.com,password-1\n");
+
+        assertThat(results).extracting(ImportRowResult::getStatus).containsExactly(ImportRowResult.Status.CREATED);
+    }
+
+    @Test
+    void invalidRowsAreReportedInLineOrder() throws IOException {
+        List<ImportRowResult> results = importCsv("""
+                Bob,bob@example.com,password1
+                Eve,not-an-email,password1
+                Short,short@example.com,pw
+                only,two
+                "Quoted, Name",quoted@example.com,password1
+                """);
+
+        assertThat(results).extracting(ImportRowResult::getLine).containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(results).extracting(ImportRowResult::getStatus).containsExactly(
+                ImportRowResult.Status.CREATED,
+                ImportRowResult.Status.INVALID,
+                ImportRowResult.Status.INVALID,
+                ImportRowResult.Status.INVALID,
+                ImportRowResult.Status.CREATED);
+        assertThat(results.get(1).getErrors()).anyMatch(e -> e.startsWith("email:"));
+        assertThat(results.get(2).getErrors()).anyMatch(e -> e.startsWith("password:"));
+        assertThat(results.get(3).getErrors()).containsExactly("Unparseable row");
+        assertThat(inserted).extracting(row -> row[1]).contains("Quoted, Name");
+    }
+
+    @Test
+    void duplicateEmailsAreReportedOnce() throws IOException {
+        storedEmails.add("existing@example.com");
+
+        List<ImportRowResult> results = importCsv("""
+                Existing,existing@example.com,password1
+                Bob,bob@example.com,password1
+                Bob Again,BOB@example.com,password1
+                """);
+
+        assertThat(results).extracting(ImportRowResult::getStatus).containsExactly(
+                ImportRowResult.Status.DUPLICATE,
+                ImportRowResult.Status.CREATED,
+                ImportRowResult.Status.DUPLICATE);
+        assertThat(results.get(0).getId()).isNull();
+        assertThat(results.get(1).getId()).isNotNull();
+    }
+
+    @Test
+    void ndjsonRowsAreParsedAndValidated() throws IOException {
+        List<ImportRowResult> results = importUsers("""
+                {"fullName":"Bob","email":"bob@example.com","password":"password1"}
+
+                {"fullName":"Eve","email":"eve@example.com"}
+                {not json}
+                """, BulkUserImportService.Format.NDJSON);
+
+        assertThat(results).extracting(ImportRowResult::getLine).containsExactly(1L, 3L, 4L);
+        assertThat(results).extracting(ImportRowResult::getStatus).containsExactly(
+                ImportRowResult.Status.CREATED,
+                ImportRowResult.Status.INVALID,
+                ImportRowResult.Status.INVALID);
+        assertThat(results.get(2).getErrors()).containsExactly("Unparseable row");
+    }
+
+    private List<ImportRowResult> importCsv(String input) throws IOException {
+        return importUsers(input, BulkUserImportService.Format.CSV);
+    }
+
+    private List<ImportRowResult> importUsers(String input, BulkUserImportService.Format format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.importUsers(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), format, out);
+
+        List<ImportRowResult> results = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            if (!line.isEmpty()) {
+                results.add(objectMapper.readValue(line, ImportRowResult.class));
+            }
+        }
+        return results;
+    }
+}
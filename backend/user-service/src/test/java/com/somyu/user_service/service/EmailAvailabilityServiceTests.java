@@ -0,0 +1,133 @@
+package com.somyu.user_service.service;
+
+import com.somyu.user_service.config.EmailFilterProperties;
+import com.somyu.user_service.event.UserChangedEvent;
+import com.somyu.user_service.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The filter in front of {@code existsByEmail}, with the users table streamed from a mock.
+ * Registrations can be injected while the table is being read, as another request would.
+ */
+class EmailAvailabilityServiceTests {
+
+    private final List<String> table = new ArrayList<>(List.of("alice@example.com", "bob@example.com"));
+    private final List<Runnable> duringScan = new ArrayList<>();
+    private UserRepository userRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private EmailAvailabilityService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        userRepository = mock(UserRepository.class);
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenAnswer(inv -> (long) table.size());
+        doAnswer(inv -> {
+            RowCallbackHandler handler = inv.getArgument(1);
+            // the scan reads a snapshot; rows registered meanwhile are not part of it
+            List<String> snapshot = List.copyOf(table);
+            for (String email : snapshot) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getString(1)).thenReturn(email);
+                handler.processRow(rs);
+                duringScan.forEach(Runnable::run);
+                duringScan.clear();
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        EmailFilterProperties properties = new EmailFilterProperties();
+        properties.setExpectedInsertions(1000);
+        properties.setFalsePositiveRate(0.001);
+        meterRegistry = new SimpleMeterRegistry();
+        service = new EmailAvailabilityService(userRepository, jdbcTemplate,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), properties, meterRegistry);
+    }
+
+    @Test
+    void beforeFirstLoadEveryCheckGoesToDatabase() {
+        when(userRepository.existsByEmail("carol@example.com")).thenReturn(false);
+
+        assertThat(service.isAvailable("carol@example.com")).isTrue();
+
+        verify(userRepository).existsByEmail("carol@example.com");
+    }
+
+    @Test
+    void loadedEmailIsNeverReportedAvailable() {
+        service.rebuild();
+        when(userRepository.existsByEmail("alice@example.com")).thenReturn(true);
+
+        assertThat(service.isAvailable(" Alice@Example.com ")).isFalse();
+    }
+
+    @Test
+    void definiteMissSkipsDatabase() {
+        service.rebuild();
+
+        assertThat(service.isAvailable("carol@example.com")).isTrue();
+
+        verify(userRepository, never()).existsByEmail(anyString());
+    }
+
+    @Test
+    void registrationAfterLoadIsAddedToFilter() {
+        service.rebuild();
+        service.onUserChanged(UserChangedEvent.registered(UUID.randomUUID(), "carol@example.com"));
+        when(userRepository.existsByEmail("carol@example.com")).thenReturn(true);
+
+        assertThat(service.isAvailable("carol@example.com")).isFalse();
+        assertThat(entries()).isEqualTo(3);
+    }
+
+    @Test
+    void registrationDuringRebuildIsKeptInNewFilter() {
+        service.rebuild();
+        duringScan.add(() -> {
+            table.add("dave@example.com");
+            service.onUserChanged(UserChangedEvent.registered(UUID.randomUUID(), "dave@example.com"));
+        });
+
+        service.rebuild();
+        when(userRepository.existsByEmail("dave@example.com")).thenReturn(true);
+
+        // not in the scanned snapshot, so only the registration event can have put it there
+        assertThat(service.isAvailable("dave@example.com")).isFalse();
+        verify(userRepository).existsByEmail("dave@example.com");
+    }
+
+    @Test
+    void nonRegistrationChangesDoNotCountAsEntries() {
+        service.rebuild();
+
+        service.onUserChanged(new UserChangedEvent(UUID.randomUUID(), "alice@example.com"));
+
+        assertThat(entries()).isEqualTo(2);
+    }
+
+    private double entries() {
+        return meterRegistry.get("email.filter.entries").gauge().value();
+    }
+}
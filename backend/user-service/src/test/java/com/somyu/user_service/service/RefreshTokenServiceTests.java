@@ -0,0 +1,149 @@
+package com.somyu.user_service.service;
+
+import com.somyu.user_service.dto.RegisterRequest;
+import com.somyu.user_service.entity.RefreshToken;
+import com.somyu.user_service.exception.InvalidRefreshTokenException;
+import com.somyu.user_service.repository.RefreshTokenRepository;
+import com.somyu.user_service.repository.UserRepository;
+import com.somyu.user_service.security.AuthenticatedUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class RefreshTokenServiceTests {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private AuthenticatedUser user;
+
+    @BeforeEach
+    void registerUser() {
+        String email = "refresh-" + UUID.randomUUID() + "@example.com";
+        userService.register(new RegisterRequest("Refresh Test", email, "password-1234"));
+        user = AuthenticatedUser.of(userRepository.findAuthViewByEmail(email).orElseThrow());
+    }
+
+    @Test
+    void rotationIssuesSuccessorInSameFamily() {
+        String first = refreshTokenService.issue(user);
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(first);
+
+        assertThat(rotation.getUser().getId()).isEqualTo(user.getId());
+        assertThat(rotation.getRefreshToken()).isNotEqualTo(first);
+        assertThat(familyOf(rotation.getRefreshToken())).isEqualTo(familyOf(first));
+    }
+
+    @Test
+    void secondExchangeOfSameTokenRevokesFamily() {
+        String first = refreshTokenService.issue(user);
+        String second = refreshTokenService.rotate(first).getRefreshToken();
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(first))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+
+        // the successor handed out by the first exchange is revoked with the family
+        assertThatThrownBy(() -> refreshTokenService.rotate(second))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+        assertThat(findByToken(first).isRevoked()).isTrue();
+        assertThat(findByToken(second).isRevoked()).isTrue();
+    }
+
+    @Test
+    void securityVersionBumpInvalidatesToken() {
+        String token = refreshTokenService.issue(user);
+        new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> userRepository.incrementSecurityVersion(user.getId()));
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(token))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+    }
+
+    @Test
+    void concurrentMarkReplacedSucceedsOnce() throws Exception {
+        String token = refreshTokenService.issue(user);
+        UUID id = idOf(token);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        CountDownLatch firstUpdated = new CountDownLatch(1);
+        CountDownLatch secondStarted = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // the first update holds its row lock until the second one has been sent
+            Future<Integer> first = executor.submit(() -> tx.execute(status -> {
+                int updated = refreshTokenRepository.markReplaced(id, Instant.now());
+                firstUpdated.countDown();
+                await(secondStarted);
+                sleepQuietly(200);
+                return updated;
+            }));
+            Future<Integer> second = executor.submit(() -> {
+                await(firstUpdated);
+                secondStarted.countDown();
+                return tx.execute(status -> refreshTokenRepository.markReplaced(id, Instant.now()));
+            });
+
+            assertThat(List.of(first.get(10, TimeUnit.SECONDS), second.get(10, TimeUnit.SECONDS)))
+                    .containsExactlyInAnyOrder(1, 0);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private UUID familyOf(String token) {
+        return findByToken(token).getFamilyId();
+    }
+
+    private UUID idOf(String token) {
+        return findByToken(token).getId();
+    }
+
+    private RefreshToken findByToken(String token) {
+        return refreshTokenRepository.findByTokenHash(refreshTokenService.hash(token)).orElseThrow();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.somyu.user_service.service;
+
+import com.somyu.user_service.dto.RegisterRequest;
+import com.somyu.user_service.entity.RevokedToken;
+import com.somyu.user_service.repository.RevokedTokenRepository;
+import com.somyu.user_service.repository.UserRepository;
+import com.somyu.user_service.security.TokenDenylist;
+import com.somyu.user_service.security.VerifiedToken;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Denylist sync from {@code revoked_tokens}, as rows written by other instances. Scheduled
+ * syncs are pushed out of the way; each test calls {@link TokenRevocationService#sync()}.
+ */
+@SpringBootTest(properties = {
+        "auth.revocation.max-entries=1000",
+        "auth.revocation.sync-interval-ms=3600000"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class TokenRevocationServiceTests {
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private TokenDenylist denylist;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    private UUID userId;
+
+    @BeforeEach
+    void registerUser() {
+        userId = userService.register(new RegisterRequest("Revocation Test",
+                "revocation-" + UUID.randomUUID() + "@example.com", "password-1234")).getId();
+    }
+
+    @Test
+    void syncLoadsRevocationsFromTable() {
+        UUID jti = revokedElsewhere();
+
+        tokenRevocationService.sync();
+
+        assertThat(denylist.isRevoked(jti)).isTrue();
+        assertThat(securityVersion()).isZero();
+    }
+
+    @Test
+    void syncFallsBackToSecurityVersionBumpWhenFull() {
+        fillDenylist();
+        UUID jti = revokedElsewhere();
+
+        tokenRevocationService.sync();
+
+        assertThat(denylist.isRevoked(jti)).isFalse();
+        assertThat(securityVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void overlappingSyncOfKnownRevocationDoesNotBumpWhenFull() {
+        revokedElsewhere();
+        tokenRevocationService.sync();
+        fillDenylist();
+
+        // the next poll overlaps the previous one and reads the same row again
+        tokenRevocationService.sync();
+
+        assertThat(securityVersion()).isZero();
+    }
+
+    @Test
+    void overflowedRowSeenAgainDoesNotBumpAgain() {
+        fillDenylist();
+        UUID jti = revokedElsewhere();
+        tokenRevocationService.sync();
+
+        // the overlapping poll reads the row again
+        tokenRevocationService.sync();
+        // as does another instance, or this one after a restart, starting from scratch
+        ReflectionTestUtils.setField(AopTestUtils.getTargetObject(tokenRevocationService), "lastSyncMillis", 0L);
+        tokenRevocationService.sync();
+
+        assertThat(securityVersion()).isEqualTo(1);
+        assertThat(revokedTokenRepository.findById(jti).orElseThrow().isFallbackApplied()).isTrue();
+    }
+
+    @Test
+    void logoutOfTokenWithoutExpiryBumpsInsteadOfRecording() {
+        UUID jti = UUID.randomUUID();
+        VerifiedToken token = new VerifiedToken(jti, "revocation@example.com", userId, Set.of("ROLE_USER"),
+                0, Instant.now(), null);
+
+        tokenRevocationService.logout(token, null);
+
+        assertThat(revokedTokenRepository.findById(jti)).isEmpty();
+        assertThat(denylist.isRevoked(jti)).isFalse();
+        assertThat(securityVersion()).isEqualTo(1);
+    }
+
+    private UUID revokedElsewhere() {
+        UUID jti = UUID.randomUUID();
+        revokedTokenRepository.save(RevokedToken.builder()
+                .jti(jti)
+                .userId(userId)
+                .expiresAt(Instant.now().plus(1, ChronoUnit.HOURS))
+                .revokedAt(Instant.now())
+                .build());
+        return jti;
+    }
+
+    private void fillDenylist() {
+        long expiresAt = System.currentTimeMillis() + 3_600_000;
+        while (denylist.add(UUID.randomUUID(), expiresAt)) {
+            // until the cap refuses
+        }
+    }
+
+    private int securityVersion() {
+        return userRepository.findAuthViewById(userId).orElseThrow().securityVersion();
+    }
+}
@@ -0,0 +1,180 @@
+package com.somyu.user_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.somyu.user_service.config.UserListingProperties;
+import com.somyu.user_service.controller.AdminUserController;
+import com.somyu.user_service.dto.UserPage;
+import com.somyu.user_service.dto.UserResponse;
+import com.somyu.user_service.entity.Role;
+import com.somyu.user_service.exception.GlobalExceptionHandler;
+import com.somyu.user_service.exception.InvalidCursorException;
+import com.somyu.user_service.repository.UserListView;
+import com.somyu.user_service.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Keyset paging against an in-memory table that applies the same (created_at, id) order and
+ * "after" predicate as the repository queries.
+ */
+class UserListingServiceTests {
+
+    private static final Comparator<UserListView> KEY_ORDER =
+            Comparator.comparing(UserListView::createdAt).thenComparing(UserListView::id);
+
+    private final List<UserListView> table = new ArrayList<>();
+    private UserListingService service;
+
+    @BeforeEach
+    void setUp() {
+        UserRepository repository = mock(UserRepository.class);
+        when(repository.findListViews(any(Limit.class)))
+                .thenAnswer(inv -> firstRows(table.stream(), inv.getArgument(0)));
+        when(repository.findListViewsAfter(any(Instant.class), any(UUID.class), any(Limit.class)))
+                .thenAnswer(inv -> {
+                    UserListView key = row(inv.getArgument(1), inv.getArgument(0));
+                    return firstRows(table.stream().filter(r -> KEY_ORDER.compare(r, key) > 0), inv.getArgument(2));
+                });
+
+        UserListingProperties properties = new UserListingProperties();
+        properties.setDefaultPageSize(100);
+        properties.setExportFetchSize(1000);
+        service = new UserListingService(repository, mock(JdbcTemplate.class), new TransactionTemplate(),
+                new ObjectMapper(), properties);
+    }
+
+    @Test
+    void cursorRoundTrip() {
+        Instant createdAt = Instant.parse("2024-05-01T10:15:30.123456789Z");
+        UUID id = UUID.randomUUID();
+
+        UserListingService.Cursor decoded = UserListingService.Cursor.decode(
+                new UserListingService.Cursor(createdAt, id).encode());
+
+        assertThat(decoded.createdAt).isEqualTo(createdAt);
+        assertThat(decoded.id).isEqualTo(id);
+    }
+
+    @Test
+    void pagesWalkEveryRowOnceWhenCreatedAtTies() {
+        Instant same = Instant.parse("2024-05-01T00:00:00Z");
+        for (int i = 0; i < 7; i++) {
+            table.add(row(UUID.randomUUID(), same));
+        }
+        table.add(row(UUID.randomUUID(), same.plusSeconds(1)));
+        table.sort(KEY_ORDER);
+
+        List<UUID> seen = new ArrayList<>();
+        String after = null;
+        int pages = 0;
+        do {
+            UserPage page = service.page(after, 3);
+            page.getUsers().forEach(user -> seen.add(user.getId()));
+            after = page.getNextCursor();
+            pages++;
+        } while (after != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).containsExactlyElementsOf(table.stream().map(UserListView::id).collect(Collectors.toList()));
+    }
+
+    @Test
+    void lastPageWithExactlyPageSizeRowsHasNoCursor() {
+        addRows(4);
+
+        UserPage first = service.page(null, 2);
+        UserPage last = service.page(first.getNextCursor(), 2);
+
+        assertThat(first.getUsers()).hasSize(2);
+        assertThat(first.getNextCursor()).isNotNull();
+        assertThat(last.getUsers()).hasSize(2);
+        assertThat(last.getNextCursor()).isNull();
+    }
+
+    @Test
+    void pageWithOneMoreRowThanPageSizeHasCursor() {
+        addRows(3);
+
+        UserPage first = service.page(null, 2);
+
+        assertThat(first.getUsers()).extracting(UserResponse::getId)
+                .containsExactly(table.get(0).id(), table.get(1).id());
+        assertThat(first.getNextCursor()).isNotNull();
+        assertThat(service.page(first.getNextCursor(), 2).getUsers()).extracting(UserResponse::getId)
+                .containsExactly(table.get(2).id());
+    }
+
+    @Test
+    void emptyTableGivesEmptyLastPage() {
+        UserPage page = service.page(null, 10);
+
+        assertThat(page.getUsers()).isEmpty();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"not base64!", "bm8tc2VwYXJhdG9y", "bm90LWEtZGF0ZXwx"})
+    void malformedCursorIsRejected(String cursor) {
+        // "no-separator" and "not-a-date|1", base64url-encoded
+        assertThatThrownBy(() -> service.page(cursor, 10)).isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    void malformedIdInCursorIsRejected() {
+        String cursor = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("2024-05-01T00:00:00Z|not-a-uuid".getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> service.page(cursor, 10)).isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    void malformedCursorIsBadRequest() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new AdminUserController(null, null, service))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+
+        mockMvc.perform(get("/api/admin/users").param("after", "garbage!"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private void addRows(int count) {
+        Instant start = Instant.parse("2024-05-01T00:00:00Z");
+        for (int i = 0; i < count; i++) {
+            table.add(row(UUID.randomUUID(), start.plusMillis(i)));
+        }
+        table.sort(KEY_ORDER);
+    }
+
+    private static List<UserListView> firstRows(java.util.stream.Stream<UserListView> rows, Limit limit) {
+        return rows.sorted(KEY_ORDER).limit(limit.max()).collect(Collectors.toList());
+    }
+
+    private static UserListView row(UUID id, Instant createdAt) {
+        return new UserListView(id, "User " + id, id + "@example.com", Set.of(Role.ROLE_USER), true, createdAt, null);
+    }
+}
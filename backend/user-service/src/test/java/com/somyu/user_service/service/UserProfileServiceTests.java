@@ -0,0 +1,53 @@
+package com.somyu.user_service.service;
+
+import com.somyu.user_service.dto.RegisterRequest;
+import com.somyu.user_service.entity.Role;
+import com.somyu.user_service.event.UserChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class UserProfileServiceTests {
+
+    @Autowired
+    private UserProfileService userProfileService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void etagChangesWhenBulkUpdateSkipsUpdatedAt() {
+        String email = "profile-" + UUID.randomUUID() + "@example.com";
+        UUID id = userService.register(new RegisterRequest("Profile Test", email, "password-1234")).getId();
+        UserProfileService.Profile before = userProfileService.get(id);
+
+        // like the legacy role migration: roles change, updated_at does not
+        jdbcTemplate.update("UPDATE users SET roles_mask = ? WHERE id = ?",
+                Role.ROLE_USER.getBit() | Role.ROLE_ADMIN.getBit(), id);
+        userProfileService.onUserChanged(new UserChangedEvent(id, email));
+        UserProfileService.Profile after = userProfileService.get(id);
+
+        assertThat(after.getUser().getRoles()).contains(Role.ROLE_ADMIN.name());
+        assertThat(after.getEtag()).isNotEqualTo(before.getEtag());
+    }
+
+    @Test
+    void etagIsStableForUnchangedProfile() {
+        String email = "profile-" + UUID.randomUUID() + "@example.com";
+        UUID id = userService.register(new RegisterRequest("Profile Test", email, "password-1234")).getId();
+        String first = userProfileService.get(id).getEtag();
+
+        userProfileService.onUserChanged(new UserChangedEvent(id, email));
+
+        assertThat(userProfileService.get(id).getEtag()).isEqualTo(first);
+    }
+}